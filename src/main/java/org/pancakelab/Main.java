@@ -1,15 +1,35 @@
 package org.pancakelab;
 
+import org.pancakelab.http.OrderHttpServer;
+import org.pancakelab.inventory.IngredientInventory;
+import org.pancakelab.ipc.OrderSocketServer;
+import org.pancakelab.journal.Checkpointer;
+import org.pancakelab.journal.FileJournal;
+import org.pancakelab.journal.JournalRecovery;
+import org.pancakelab.metrics.MetricsReporter;
+import org.pancakelab.model.order.LineItem;
 import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
 import org.pancakelab.model.constant.Ingredient;
 import org.pancakelab.model.pancake.Pancake;
-import org.pancakelab.template.OrderProcessTemplate;
+import org.pancakelab.replay.OrderReplay;
+import org.pancakelab.repository.OrderArchive;
+import org.pancakelab.template.OrderPipeline;
 import org.pancakelab.template.PancakeOrderProcess;
 import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderDeadlines;
+import org.pancakelab.service.OrderRetention;
 import org.pancakelab.service.OrderService;
 import org.pancakelab.service.PancakeService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 import java.util.logging.Formatter;
 
@@ -19,6 +39,8 @@ import java.util.logging.Formatter;
  * - View the pancake ingredient menu.
  * - Place an order with selected ingredients.
  * - Confirm or cancel the order.
+ * Started with {@code --replay <file>} (or {@code --replay -} for standard input), it instead replays a file of
+ * order commands without interaction and reports the throughput and order latencies.
  */
 public class Main {
 
@@ -30,6 +52,35 @@ public class Main {
 	private static OrderService orderService = new OrderService();
 	private static DeliveryService deliveryService = new DeliveryService(pancakeService, orderService);
 
+	// The services below run in the interactive mode only and are set up by init(), so a replay never touches them
+
+	// Journal of every order change; replayed on startup so open orders survive a restart
+	private static FileJournal journal;
+
+	// Stock of each ingredient, reserved by the pancakes of open orders; only kept when pancakelab.stock is set
+	private static IngredientInventory inventory;
+
+	// Snapshots the orders every few minutes so a restart only replays the recent journal records
+	private static Checkpointer checkpointer;
+
+	// Moves cancelled and finished orders out of the services once they are an hour old
+	private static OrderRetention retention;
+
+	// Cancels orders left unconfirmed and flags prepared orders that miss the delivery SLA
+	private static OrderDeadlines deadlines;
+
+	// Publishes operation latencies over JMX and logs a summary of them every minute
+	private static MetricsReporter metricsReporter;
+
+	// Pipeline that prepares, delivers and completes confirmed orders in the background
+	private static OrderPipeline orderPipeline;
+
+	// Local HTTP API for the order terminals, started when pancakelab.http.port is set
+	private static OrderHttpServer httpServer;
+
+	// Binary order API for processes on the same host, started when pancakelab.socket is set
+	private static OrderSocketServer socketServer;
+
 	// Flag to control the main loop
 	static boolean running = true;
 
@@ -54,10 +105,17 @@ public class Main {
 	 * Main method to start the Pancake Factory application.
 	 * Provides a menu for users to choose options, such as showing the menu, placing an order, or exiting.
 	 *
-	 * @param args Command-line arguments (not used in this implementation).
+	 * @param args Command-line arguments: none for the interactive mode, or {@code --replay <file>} to replay
+	 *             order commands from a file, {@code -} meaning standard input.
 	 */
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("--replay")) {
+			replay(args.length > 1 ? args[1] : "-");
+			return;
+		}
+
 		Scanner scanner = new Scanner(System.in);
+		init();
 
 		logger.info("\n \u001B[34mWelcome to Pancake Factory!\u001B[0m");
 
@@ -86,9 +144,141 @@ public class Main {
 			}
 		}
 
+		shutdown();
 		scanner.close();
 	}
 
+	/**
+	 * Replays the order commands of a file through unjournaled services and logs the throughput and latencies.
+	 *
+	 * @param source the file to replay, or {@code -} for standard input
+	 */
+	private static void replay(String source) {
+		int batchSize = Integer.getInteger("pancakelab.replay.batch", 1024);
+		// Replayed traffic runs on services of its own without a journal, so it never reaches the live orders
+		OrderService replayOrders = new OrderService();
+		PancakeService replayPancakes = new PancakeService();
+		OrderPipeline replayPipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(replayPancakes, replayOrders, new DeliveryService(replayPancakes, replayOrders)),
+				replayOrders::findOrderById, 2, 64);
+		try (replayPipeline;
+			 BufferedReader in = source.equals("-")
+					 ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+					 : Files.newBufferedReader(Path.of(source))) {
+			OrderReplay.Report report = new OrderReplay(replayOrders, replayPancakes, replayPipeline, batchSize).run(in);
+			logger.info(report.format());
+		} catch (IOException e) {
+			logger.severe("❌ Replay of " + source + " failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Recovers the orders from the journal and starts the background services of the interactive mode.
+	 */
+	private static void init() {
+		journal = JournalRecovery.recover(
+				Path.of(System.getProperty("pancakelab.journal", "data/orders.journal")),
+				FileJournal.SyncPolicy.valueOf(System.getProperty("pancakelab.journal.sync", "INTERVAL")),
+				orderService, pancakeService);
+		attachInventory();
+
+		checkpointer = new Checkpointer(journal, orderService, pancakeService);
+		checkpointer.start(Long.getLong("pancakelab.snapshot.minutes", 5), TimeUnit.MINUTES);
+		retention = new OrderRetention(orderService, pancakeService, new OrderArchive(10_000),
+				Long.getLong("pancakelab.retention.minutes", 60), TimeUnit.MINUTES);
+		retention.start(1, TimeUnit.MINUTES);
+		deadlines = new OrderDeadlines(orderService, pancakeService,
+				Long.getLong("pancakelab.order.timeout.minutes", 30), Long.getLong("pancakelab.delivery.sla.minutes", 15),
+				TimeUnit.MINUTES);
+		orderService.setDeadlines(deadlines);
+		deadlines.start();
+		metricsReporter = new MetricsReporter();
+		metricsReporter.registerMBeans();
+		metricsReporter.start(Long.getLong("pancakelab.metrics.minutes", 1), TimeUnit.MINUTES);
+		orderPipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 2, 64);
+		startHttpServer();
+		startSocketServer();
+	}
+
+	/**
+	 * Keeps the ingredient stock given by {@code pancakelab.stock}, if any: the units of each ingredient on hand
+	 * at startup. The stock is not journaled, so the reservations of the open orders recovered from the journal
+	 * are rebuilt from their pancakes before the inventory is attached to the services.
+	 */
+	private static void attachInventory() {
+		Long stock = Long.getLong("pancakelab.stock");
+		if (stock == null) {
+			return;
+		}
+		inventory = new IngredientInventory(stock);
+		for (Order order : orderService.getAllOrders()) {
+			if (order.getStatus().isTerminal()) {
+				continue;
+			}
+			for (LineItem item : pancakeService.getLineItems(order.getId())) {
+				try {
+					inventory.reserve(order.getId(), item.recipe(), item.quantity());
+				} catch (IllegalStateException e) {
+					logger.warning("⚠️ Order " + order.getId() + " exceeds the ingredient stock: " + e.getMessage());
+				}
+			}
+		}
+		orderService.setInventory(inventory);
+		pancakeService.setInventory(inventory);
+	}
+
+	/**
+	 * Starts the HTTP order API on the loopback port given by {@code pancakelab.http.port}, if any.
+	 */
+	private static void startHttpServer() {
+		Integer port = Integer.getInteger("pancakelab.http.port");
+		if (port == null) {
+			return;
+		}
+		try {
+			httpServer = new OrderHttpServer(orderService, pancakeService, orderPipeline, port,
+					OrderHttpServer.perRequestExecutor());
+			httpServer.start();
+		} catch (IOException e) {
+			logger.severe("❌ Could not start the order API on port " + port + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Starts the binary order API on the Unix domain socket given by {@code pancakelab.socket}, if any.
+	 */
+	private static void startSocketServer() {
+		String socket = System.getProperty("pancakelab.socket");
+		if (socket == null) {
+			return;
+		}
+		try {
+			socketServer = new OrderSocketServer(orderService, pancakeService, orderPipeline, Path.of(socket));
+			socketServer.start();
+		} catch (IOException e) {
+			logger.severe("❌ Could not start the order socket " + socket + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Finishes the in-flight orders and stops the background services, closing the journal last.
+	 */
+	private static void shutdown() {
+		if (httpServer != null) {
+			httpServer.close();
+		}
+		if (socketServer != null) {
+			socketServer.close();
+		}
+		orderPipeline.close();
+		retention.close();
+		deadlines.close();
+		metricsReporter.close();
+		checkpointer.close();
+		journal.close();
+	}
+
 	/**
 	 * Displays the list of available ingredients along with their prices.
 	 * This allows the user to choose from a variety of ingredients for their pancake.
@@ -127,17 +317,24 @@ public class Main {
 		// Ask for the number of pancakes to be ordered
 		int quantity = getValidatedInt(scanner, "👉 How many pancakes would you like?", 1);
 
+		// Add the ordered pancakes to the order, unless the ingredients ran out
+		try {
+			pancakeService.addPancakes(order, pancake, quantity);
+		} catch (IllegalStateException e) {
+			logger.warning("❌ " + e.getMessage() + ", please order fewer pancakes or other toppings.");
+			orderService.cancelOrder(order.getId(), 0);
+			return;
+		}
+		OrderLines lines = pancakeService.getOrderLines(order.getId());
+
 		// Display the order summary
 		logger.info("\n\u001B[32m---******** Your Order Summary ******---\u001B[0m");
 		logger.info("\u001B[32mName:" + name);
 		logger.info("\u001B[32mPancake:" + pancake.getDescription());
-		logger.info("\u001B[32mQuantity:" + quantity);
-		logger.info("\u001B[32mTotal Price: $" + quantity * pancake.getPrice());
+		logger.info("\u001B[32mQuantity:" + lines.getPancakeCount());
+		logger.info("\u001B[32mTotal Price: $" + lines.getTotalPrice());
 		logger.info("\n\u001B[32m------ ****************************** ---------\u001B[0m");
 
-		// Add the ordered pancakes to the order
-		pancakeService.addPancakes(order, pancake, quantity);
-
 		// Ask the user to confirm or cancel the order
 		int choice = getValidatedInt(scanner, "👉 Please select an option to confirm your order:\n1. Proceed with the order\n2. Cancel the order", 1, 2);
 
@@ -195,14 +392,18 @@ public class Main {
 	}
 
 	/**
-	 * Confirms the order and processes it, starting the delivery process.
+	 * Confirms the order and hands it to the order pipeline, which runs the delivery process in the background.
 	 *
 	 * @param orderId The UUID of the order to be confirmed.
 	 */
 	private static void confirmedOrder(UUID orderId) {
-		OrderProcessTemplate orderProcessTemplate = new PancakeOrderProcess(pancakeService, orderService, deliveryService);
-		orderProcessTemplate.processOrder(orderId);
-		logger.info("\u001B[32mYour order is successful, and your pancake will be delivered in 15 minutes.\u001B[0m");
+		orderPipeline.submit(orderId).whenComplete((order, failure) -> {
+			if (failure != null) {
+				logger.warning("❌ Order " + orderId + " could not be processed: " + failure.getMessage());
+			}
+		});
+		logger.info("\u001B[32mYour order is successful, and your pancake will be delivered in "
+				+ deadlines.getDeliverySla(TimeUnit.MINUTES) + " minutes.\u001B[0m");
 	}
 
 	/**
@@ -211,7 +412,7 @@ public class Main {
 	 * @param orderId The UUID of the order to be canceled.
 	 */
 	private static void cancelOrder(UUID orderId) {
-		orderService.cancelOrder(orderId, pancakeService.getAllPancakes());
+		orderService.cancelOrder(orderId, pancakeService.countPancakes(orderId));
 		logger.info("\u001B[31mYour order is cancelled.\u001B[0m");
 	}
 
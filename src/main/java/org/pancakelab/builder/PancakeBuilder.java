@@ -9,17 +9,19 @@ import org.pancakelab.model.pancake.*;
  * It starts with a base pancake and allows you to add ingredients to it, creating a final customized pancake.
  *
  * The builder allows chaining of method calls to add ingredients and finally build the fully constructed pancake.
- * </pre>
+ *
+ * Ingredients are collected into a shared, canonical {@link Recipe} rather than a chain of decorators,
+ * so adding an ingredient never allocates and {@link #build()} allocates a single {@link RecipePancake}.
  */
 public class PancakeBuilder {
-    private Pancake pancake;
+    private Recipe recipe;
 
     /**
      * Constructs a new `PancakeBuilder` and initializes it with a base pancake.
      * This is the starting point for building a customized pancake.
      */
     public PancakeBuilder() {
-        this.pancake = new BasePancake();
+        this.recipe = Recipe.EMPTY;
     }
 
     /**
@@ -42,31 +44,39 @@ public class PancakeBuilder {
      * @throws IllegalArgumentException If an invalid ingredient is provided.
      */
     public PancakeBuilder addIngredient(String ingredient) {
-        switch (Ingredient.valueOf(ingredient.trim().replace(" ", "_").toUpperCase())) {
-            case DARK_CHOCOLATE:
-                pancake = new DarkChocolate(pancake);
-                break;
-            case MILK_CHOCOLATE:
-                pancake = new MilkChocolate(pancake);
-                break;
-            case HAZELNUT:
-                pancake = new Hazelnut(pancake);
-                break;
-            case WHIPPED_CREAM:
-                pancake = new WhippedCream(pancake);
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid ingredient: " + ingredient);
+        return addIngredient(Ingredient.valueOf(ingredient.trim().replace(" ", "_").toUpperCase()));
+    }
+
+    /**
+     * Adds an ingredient to the pancake without any name parsing.
+     *
+     * @param ingredient The ingredient to be added to the pancake.
+     * @return The current `PancakeBuilder` instance to allow for method chaining.
+     * @throws IllegalArgumentException If the ingredient is null.
+     */
+    public PancakeBuilder addIngredient(Ingredient ingredient) {
+        if (ingredient == null) {
+            throw new IllegalArgumentException("Invalid ingredient: null");
         }
+        recipe = recipe.with(ingredient);
         return this;
     }
 
+    /**
+     * Returns the recipe collected so far.
+     *
+     * @return The shared `Recipe` for the added ingredients.
+     */
+    public Recipe recipe() {
+        return recipe;
+    }
+
     /**
      * Builds and returns the final pancake with all the added ingredients.
      *
      * @return The constructed `Pancake` object.
      */
     public Pancake build() {
-        return pancake;
+        return new RecipePancake(recipe);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+package org.pancakelab.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Minimal streaming JSON reader for request bodies: it pulls one token at a time from the stream, so a body
+ * is never buffered or turned into a string as a whole.
+ *
+ * <p>It reads objects, arrays, strings, integers, booleans and {@code null}, which is all the order API
+ * accepts. Malformed input fails with an {@link IllegalArgumentException}.</p>
+ *
+ * Example usage:
+ * <pre>
+ * JsonReader json = new JsonReader(exchange.getRequestBody());
+ * json.beginObject();
+ * while (json.hasNext()) {
+ *     switch (json.nextName()) {
+ *         case "building" -> building = json.nextInt();
+ *         default -> json.skipValue();
+ *     }
+ * }
+ * json.endObject();
+ * </pre>
+ */
+class JsonReader {
+
+	private static final int END = -1;
+
+	private final InputStream in;
+	private final byte[] buffer = new byte[512];
+	private int position;
+	private int limit;
+
+	/** Whether the current object or array already had a value, so the next one needs a comma */
+	private boolean afterValue;
+
+	JsonReader(InputStream in) {
+		this.in = in;
+	}
+
+	void beginObject() throws IOException {
+		expect('{');
+		afterValue = false;
+	}
+
+	void endObject() throws IOException {
+		expect('}');
+		afterValue = true;
+	}
+
+	void beginArray() throws IOException {
+		expect('[');
+		afterValue = false;
+	}
+
+	void endArray() throws IOException {
+		expect(']');
+		afterValue = true;
+	}
+
+	/**
+	 * Indicates whether the current object or array has another member, consuming the comma before it.
+	 */
+	boolean hasNext() throws IOException {
+		int c = peek();
+		if (c == '}' || c == ']') {
+			return false;
+		}
+		if (afterValue) {
+			expect(',');
+			afterValue = false;
+		}
+		return true;
+	}
+
+	String nextName() throws IOException {
+		String name = readString();
+		expect(':');
+		return name;
+	}
+
+	String nextString() throws IOException {
+		String value = readString();
+		afterValue = true;
+		return value;
+	}
+
+	int nextInt() throws IOException {
+		long value = 0;
+		boolean negative = false;
+		if (peek() == '-') {
+			negative = true;
+			position++;
+		}
+		int digits = 0;
+		int c;
+		while ((c = peekRaw()) >= '0' && c <= '9') {
+			value = value * 10 + (c - '0');
+			position++;
+			if (++digits > 10) {
+				throw malformed("number too long");
+			}
+		}
+		value = negative ? -value : value;
+		if (digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw malformed("integer expected");
+		}
+		afterValue = true;
+		return (int) value;
+	}
+
+	/**
+	 * Skips the next value, whatever its type.
+	 */
+	void skipValue() throws IOException {
+		int c = peek();
+		if (c == '"') {
+			nextString();
+		} else if (c == '{') {
+			beginObject();
+			while (hasNext()) {
+				nextName();
+				skipValue();
+			}
+			endObject();
+		} else if (c == '[') {
+			beginArray();
+			while (hasNext()) {
+				skipValue();
+			}
+			endArray();
+		} else {
+			// Number, true, false or null: everything up to the next delimiter
+			int length = 0;
+			while ((c = peekRaw()) != END && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+				position++;
+				length++;
+			}
+			if (length == 0) {
+				throw malformed("value expected");
+			}
+			afterValue = true;
+		}
+	}
+
+	private String readString() throws IOException {
+		expect('"');
+		StringBuilder value = new StringBuilder();
+		while (true) {
+			int c = read();
+			if (c == '"') {
+				return value.toString();
+			} else if (c == '\\') {
+				int escaped = read();
+				switch (escaped) {
+					case '"', '\\', '/' -> value.append((char) escaped);
+					case 'n' -> value.append('\n');
+					case 't' -> value.append('\t');
+					case 'r' -> value.append('\r');
+					case 'b' -> value.append('\b');
+					case 'f' -> value.append('\f');
+					case 'u' -> {
+						int code = 0;
+						for (int i = 0; i < 4; i++) {
+							code = code << 4 | hexDigit(read());
+						}
+						value.append((char) code);
+					}
+					default -> throw malformed("invalid escape");
+				}
+			} else if (c == END || c < 0x20) {
+				throw malformed("unterminated string");
+			} else if (c < 0x80) {
+				value.append((char) c);
+			} else {
+				value.appendCodePoint(readUtf8(c));
+			}
+		}
+	}
+
+	private int readUtf8(int first) throws IOException {
+		int extra = first >= 0xF0 ? 3 : first >= 0xE0 ? 2 : first >= 0xC0 ? 1 : -1;
+		if (extra < 0) {
+			throw malformed("invalid UTF-8");
+		}
+		int code = first & (0x3F >> extra);
+		for (int i = 0; i < extra; i++) {
+			int next = read();
+			if ((next & 0xC0) != 0x80) {
+				throw malformed("invalid UTF-8");
+			}
+			code = code << 6 | next & 0x3F;
+		}
+		return code;
+	}
+
+	private static int hexDigit(int c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		} else if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		} else if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		throw malformed("invalid unicode escape");
+	}
+
+	private void expect(char expected) throws IOException {
+		if (peek() != expected) {
+			throw malformed("'" + expected + "' expected");
+		}
+		position++;
+	}
+
+	/**
+	 * Returns the next byte that is not whitespace, without consuming it.
+	 */
+	private int peek() throws IOException {
+		int c;
+		while (isWhitespace(c = peekRaw())) {
+			position++;
+		}
+		return c;
+	}
+
+	private int peekRaw() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return END;
+			}
+		}
+		return buffer[position] & 0xFF;
+	}
+
+	private int read() throws IOException {
+		int c = peekRaw();
+		if (c != END) {
+			position++;
+		}
+		return c;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+	}
+
+	private static IllegalArgumentException malformed(String reason) {
+		return new IllegalArgumentException("Malformed JSON: " + reason);
+	}
+}
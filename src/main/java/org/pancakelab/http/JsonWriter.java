@@ -0,0 +1,161 @@
+package org.pancakelab.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Minimal JSON writer that encodes straight into a byte buffer and flushes it to the response stream, so
+ * a response is never built up as a string first.
+ *
+ * <p>Commas between members are added automatically. Integers are encoded digit by digit; only
+ * {@code double} values go through {@link Double#toString(double)}.</p>
+ *
+ * Example usage:
+ * <pre>
+ * try (JsonWriter json = new JsonWriter(exchange.getResponseBody())) {
+ *     json.beginObject().name("status").value("CREATED").endObject();
+ * }
+ * </pre>
+ */
+class JsonWriter implements AutoCloseable {
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+	private final OutputStream out;
+	private final byte[] buffer = new byte[4096];
+	private int position;
+
+	/** Whether the current object or array already has a member, so the next one needs a comma */
+	private boolean needsComma;
+
+	JsonWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	JsonWriter beginObject() throws IOException {
+		separate();
+		write('{');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter endObject() throws IOException {
+		write('}');
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter beginArray() throws IOException {
+		separate();
+		write('[');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter endArray() throws IOException {
+		write(']');
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter name(String name) throws IOException {
+		separate();
+		string(name);
+		write(':');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter value(String value) throws IOException {
+		separate();
+		if (value == null) {
+			ascii("null");
+		} else {
+			string(value);
+		}
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter value(long value) throws IOException {
+		separate();
+		if (value < 0) {
+			write('-');
+		}
+		// Digits from the most significant, working on the negative value so Long.MIN_VALUE needs no special case
+		long negative = value < 0 ? value : -value;
+		long divisor = 1;
+		while (negative / divisor <= -10) {
+			divisor *= 10;
+		}
+		while (divisor != 0) {
+			write('0' - (int) (negative / divisor));
+			negative %= divisor;
+			divisor /= 10;
+		}
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter value(double value) throws IOException {
+		separate();
+		ascii(Double.isFinite(value) ? Double.toString(value) : "null");
+		needsComma = true;
+		return this;
+	}
+
+	private void separate() throws IOException {
+		if (needsComma) {
+			write(',');
+		}
+	}
+
+	private void string(String value) throws IOException {
+		write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				write('\\');
+				write(c);
+			} else if (c < 0x20 || c >= 0x7F) {
+				// Escaping everything outside printable ASCII keeps the output valid without a charset encoder
+				write('\\');
+				write('u');
+				write(HEX[c >> 12 & 0xF]);
+				write(HEX[c >> 8 & 0xF]);
+				write(HEX[c >> 4 & 0xF]);
+				write(HEX[c & 0xF]);
+			} else {
+				write(c);
+			}
+		}
+		write('"');
+	}
+
+	private void ascii(String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			write(value.charAt(i));
+		}
+	}
+
+	private void write(int b) throws IOException {
+		if (position == buffer.length) {
+			flush();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+	}
+
+	/**
+	 * Flushes the buffer and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+		out.close();
+	}
+}
@@ -0,0 +1,321 @@
+package org.pancakelab.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.LineItem;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * HTTP/JSON front end for the order services, served on the loopback interface by the JDK's built-in
+ * {@link HttpServer}.
+ *
+ * <pre>
+ * POST   /orders                      {"building":1,"room":101}                     create an order
+ * GET    /orders?status=PREPARED                                                    list order IDs by status
+ * GET    /orders/{id}                                                               view an order
+ * POST   /orders/{id}/pancakes        {"ingredients":["HAZELNUT"],"quantity":2}     add pancakes
+ * DELETE /orders/{id}/pancakes?count=1                                              remove the first pancakes
+ * POST   /orders/{id}/confirm                                                       hand the order to the pipeline
+ * POST   /orders/{id}/cancel                                                        cancel the order
+ * </pre>
+ *
+ * <p>Handlers call the services directly on the executor passed in. Request bodies are read with a
+ * streaming {@link JsonReader}, and responses are encoded by a {@link JsonWriter} straight into the
+ * exchange's output stream, sent chunked so no length has to be known up front. Invalid requests get a 400,
+ * unknown orders a 404, and changes the order's status does not allow a 409, each with an
+ * {@code {"error": ...}} body. A failure after the response has started only cuts the response short.</p>
+ *
+ * <p>Confirming claims the order in the pipeline before its status is checked, so of two concurrent confirms
+ * of the same order one gets a 202 and the other a 409. Processing failures are logged.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderHttpServer server = new OrderHttpServer(orderService, pancakeService, pipeline, 8080,
+ *         OrderHttpServer.perRequestExecutor());
+ * server.start();
+ * </pre>
+ */
+public class OrderHttpServer implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderHttpServer.class);
+
+	private static final String ORDERS = "/orders";
+
+	/** Threads serving requests when virtual threads are not available */
+	private static final int PLATFORM_THREADS = 64;
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final OrderPipeline pipeline;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * Constructs a server bound to the given loopback port; requests are served once {@link #start()} is called.
+	 *
+	 * @param orderService   the service managing the orders
+	 * @param pancakeService the service managing the pancakes
+	 * @param pipeline       processes confirmed orders
+	 * @param port           the port, or 0 for any free port
+	 * @param executor       runs the request handlers; owned by the server from now on
+	 * @throws IOException if the port cannot be bound
+	 */
+	public OrderHttpServer(OrderService orderService, PancakeService pancakeService, OrderPipeline pipeline, int port,
+						   ExecutorService executor) throws IOException {
+		if (orderService == null || pancakeService == null || pipeline == null || executor == null) {
+			throw new IllegalArgumentException("Invalid HTTP server configuration");
+		}
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.pipeline = pipeline;
+		this.executor = executor;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		server.createContext(ORDERS, this::handle);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Returns an executor running each request on its own virtual thread when the runtime has them (Java 21+),
+	 * and on a fixed pool of platform threads otherwise.
+	 *
+	 * @return the executor for the request handlers
+	 */
+	public static ExecutorService perRequestExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(PLATFORM_THREADS, runnable -> {
+				Thread thread = new Thread(runnable, "order-http");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Starts serving requests.
+	 */
+	public void start() {
+		server.start();
+		logger.info("Order API listening on http://{}:{}{}", server.getAddress().getHostString(),
+				server.getAddress().getPort(), ORDERS);
+	}
+
+	/**
+	 * Returns the address the server is bound to.
+	 *
+	 * @return the loopback address and port
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			route(exchange);
+		} catch (IllegalArgumentException e) {
+			error(exchange, 400, e.getMessage());
+		} catch (IllegalStateException e) {
+			error(exchange, 409, e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("Request {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+			error(exchange, 500, "Internal error");
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void route(HttpExchange exchange) throws IOException {
+		String method = exchange.getRequestMethod();
+		String path = exchange.getRequestURI().getPath();
+		if (path.length() <= ORDERS.length() + 1) {
+			switch (method) {
+				case "POST" -> createOrder(exchange);
+				case "GET" -> listOrders(exchange);
+				default -> error(exchange, 405, "Method not allowed");
+			}
+			return;
+		}
+		int idEnd = path.indexOf('/', ORDERS.length() + 1);
+		UUID orderId = UUID.fromString(path.substring(ORDERS.length() + 1, idEnd < 0 ? path.length() : idEnd));
+		Order order = orderService.getOrderRepository().findById(orderId).orElse(null);
+		if (order == null) {
+			error(exchange, 404, "Order not found: " + orderId);
+			return;
+		}
+		String action = idEnd < 0 ? "" : path.substring(idEnd + 1);
+		switch (method + " " + action) {
+			case "GET " -> writeOrder(exchange, 200, order);
+			case "POST pancakes" -> addPancakes(exchange, order);
+			case "DELETE pancakes" -> {
+				int count = queryInt(exchange, "count", 1);
+				pancakeService.removePancakes(orderId, count, orderService.getOrderRepository());
+				writeOrder(exchange, 200, order);
+			}
+			case "POST confirm" -> {
+				pipeline.submitIf(orderId, confirmed -> confirmed.getStatus() == OrderStatus.CREATED)
+						.whenComplete((processed, failure) -> {
+							if (failure != null) {
+								logger.warn("Order {} could not be processed: {}", orderId, failure.getMessage());
+							}
+						});
+				writeOrder(exchange, 202, order);
+			}
+			case "POST cancel" -> {
+				orderService.cancelOrder(orderId, pancakeService.countPancakes(orderId));
+				writeOrder(exchange, 200, order);
+			}
+			default -> error(exchange, 404, "No such resource");
+		}
+	}
+
+	private void createOrder(HttpExchange exchange) throws IOException {
+		int building = -1;
+		int room = -1;
+		JsonReader json = new JsonReader(exchange.getRequestBody());
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+				case "building" -> building = json.nextInt();
+				case "room" -> room = json.nextInt();
+				default -> json.skipValue();
+			}
+		}
+		json.endObject();
+		if (building < 0 || room < 0) {
+			throw new IllegalArgumentException("building and room are required");
+		}
+		writeOrder(exchange, 201, orderService.createOrder(building, room));
+	}
+
+	private void addPancakes(HttpExchange exchange, Order order) throws IOException {
+		int mask = 0;
+		int quantity = 1;
+		JsonReader json = new JsonReader(exchange.getRequestBody());
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+				case "ingredients" -> {
+					json.beginArray();
+					while (json.hasNext()) {
+						mask |= Ingredient.valueOf(json.nextString()).mask();
+					}
+					json.endArray();
+				}
+				case "quantity" -> quantity = json.nextInt();
+				default -> json.skipValue();
+			}
+		}
+		json.endObject();
+		pancakeService.addPancakes(order, new RecipePancake(Recipe.of(mask)), quantity);
+		writeOrder(exchange, 200, order);
+	}
+
+	private void listOrders(HttpExchange exchange) throws IOException {
+		String status = query(exchange, "status");
+		if (status == null) {
+			throw new IllegalArgumentException("status is required");
+		}
+		OrderStatus orderStatus = OrderStatus.valueOf(status);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, 0);
+		try (JsonWriter json = new JsonWriter(exchange.getResponseBody())) {
+			json.beginObject().name("status").value(orderStatus.name()).name("orders").beginArray();
+			for (UUID orderId : orderService.listOrdersByStatus(orderStatus)) {
+				json.value(orderId.toString());
+			}
+			json.endArray().endObject();
+		}
+	}
+
+	private void writeOrder(HttpExchange exchange, int status, Order order) throws IOException {
+		OrderLines lines = pancakeService.getOrderLines(order.getId());
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, 0);
+		try (JsonWriter json = new JsonWriter(exchange.getResponseBody())) {
+			json.beginObject()
+					.name("id").value(order.getId().toString())
+					.name("building").value(order.getBuilding())
+					.name("room").value(order.getRoom())
+					.name("status").value(order.getStatus().name())
+					.name("pancakeCount").value(lines.getPancakeCount())
+					.name("totalPrice").value(lines.getTotalPrice())
+					.name("pancakes").beginArray();
+			for (LineItem item : lines.getItems()) {
+				json.beginObject()
+						.name("description").value(item.recipe().getDescription())
+						.name("unitPrice").value(item.unitPrice())
+						.name("quantity").value(item.quantity())
+						.endObject();
+			}
+			json.endArray().endObject();
+		}
+	}
+
+	/**
+	 * Sends an error response, unless the response headers have already gone out: the client then only
+	 * sees the response cut short when the exchange is closed, and the failure is logged here.
+	 */
+	private static void error(HttpExchange exchange, int status, String message) throws IOException {
+		if (exchange.getResponseCode() != -1) {
+			logger.warn("Request {} {} failed after its response was started: {}", exchange.getRequestMethod(),
+					exchange.getRequestURI(), message);
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, 0);
+		try (JsonWriter json = new JsonWriter(exchange.getResponseBody())) {
+			json.beginObject().name("error").value(message).endObject();
+		}
+	}
+
+	private static int queryInt(HttpExchange exchange, String name, int defaultValue) {
+		String value = query(exchange, name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * Returns the value of a query parameter, or {@code null} if it is absent.
+	 */
+	private static String query(HttpExchange exchange, String name) {
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return null;
+		}
+		int start = 0;
+		while (start <= query.length()) {
+			int end = query.indexOf('&', start);
+			end = end < 0 ? query.length() : end;
+			if (query.startsWith(name, start) && start + name.length() < end && query.charAt(start + name.length()) == '=') {
+				return query.substring(start + name.length() + 1, end);
+			}
+			start = end + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Stops accepting requests, gives the ones in progress a second to finish, and stops the handler executor.
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,224 @@
+package org.pancakelab.inventory;
+
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of each {@link Ingredient}, with the units reserved by open orders.
+ *
+ * <p>Each pancake takes one unit of every ingredient of its recipe. Units move from <em>available</em> to
+ * <em>reserved</em> when pancakes are added to an order, back to available when they are removed or the order
+ * is cancelled, and from reserved to <em>consumed</em> when the order is delivered.</p>
+ *
+ * <p>Available units are per-ingredient atomic counters, taken with compare-and-set so they never go negative.
+ * A reservation takes the ingredients of a recipe one after another, in ingredient order, and gives back the
+ * ones already taken if a later one is short, so it succeeds or fails as a whole without a global lock.
+ * A reservation that is about to give units back may briefly make another one fail, but stock is never
+ * oversold. The units held by each order are kept per order, so releasing or consuming an order only touches
+ * its own entry.</p>
+ *
+ * Example usage:
+ * <pre>
+ * IngredientInventory inventory = new IngredientInventory(1_000);
+ * pancakeService.setInventory(inventory);
+ * orderService.setInventory(inventory);
+ * </pre>
+ */
+public class IngredientInventory {
+
+	private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+	/** Units of each ingredient free to reserve, indexed by ordinal */
+	private final AtomicLongArray available = new AtomicLongArray(INGREDIENTS.length);
+	/** Units of each ingredient held by open orders */
+	private final AtomicLongArray reserved = new AtomicLongArray(INGREDIENTS.length);
+	/** Units of each ingredient used by delivered orders */
+	private final AtomicLongArray consumed = new AtomicLongArray(INGREDIENTS.length);
+
+	/** Units of each ingredient held by each order, indexed by ordinal; only changed inside the map's compute */
+	private final Map<UUID, long[]> holdings = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs an inventory with the same stock of every ingredient.
+	 *
+	 * @param unitsPerIngredient the initial units of each ingredient
+	 * @throws IllegalArgumentException if the stock is negative
+	 */
+	public IngredientInventory(long unitsPerIngredient) {
+		for (Ingredient ingredient : INGREDIENTS) {
+			restock(ingredient, unitsPerIngredient);
+		}
+	}
+
+	/**
+	 * Adds units of an ingredient to the stock.
+	 *
+	 * @param ingredient the ingredient
+	 * @param units      the number of units delivered
+	 * @throws IllegalArgumentException if the ingredient is null or the units are negative
+	 */
+	public void restock(Ingredient ingredient, long units) {
+		if (ingredient == null || units < 0) {
+			throw new IllegalArgumentException("Invalid ingredient or units");
+		}
+		available.getAndAdd(ingredient.ordinal(), units);
+	}
+
+	/**
+	 * Reserves the ingredients of {@code count} pancakes of a recipe for an order: all of them, or none.
+	 *
+	 * @param orderId the order the pancakes are added to
+	 * @param recipe  the recipe of the pancakes
+	 * @param count   the number of pancakes
+	 * @throws IllegalArgumentException if an argument is null or the count is not positive
+	 * @throws IllegalStateException if an ingredient is out of stock; nothing is reserved then
+	 */
+	public void reserve(UUID orderId, Recipe recipe, int count) {
+		if (orderId == null || recipe == null || count <= 0) {
+			throw new IllegalArgumentException("Invalid order, recipe, or count");
+		}
+		int mask = recipe.getMask();
+		for (int i = 0; i < INGREDIENTS.length; i++) {
+			if ((mask & INGREDIENTS[i].mask()) != 0 && !take(i, count)) {
+				for (int j = 0; j < i; j++) {
+					if ((mask & INGREDIENTS[j].mask()) != 0) {
+						available.getAndAdd(j, count);
+					}
+				}
+				throw new IllegalStateException("Not enough " + INGREDIENTS[i].getName() + " in stock");
+			}
+		}
+		if (mask == 0) {
+			return;
+		}
+		holdings.compute(orderId, (id, held) -> {
+			long[] updated = held == null ? new long[INGREDIENTS.length] : held;
+			for (int i = 0; i < INGREDIENTS.length; i++) {
+				if ((mask & INGREDIENTS[i].mask()) != 0) {
+					updated[i] += count;
+					reserved.getAndAdd(i, count);
+				}
+			}
+			return updated;
+		});
+	}
+
+	/**
+	 * Takes units of an ingredient if enough are available.
+	 */
+	private boolean take(int index, long units) {
+		while (true) {
+			long current = available.get(index);
+			if (current < units) {
+				return false;
+			}
+			if (available.compareAndSet(index, current, current - units)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Gives back the ingredients of {@code count} pancakes of a recipe removed from an order.
+	 * Only units the order actually holds are given back.
+	 *
+	 * @param orderId the order the pancakes were removed from
+	 * @param recipe  the recipe of the pancakes
+	 * @param count   the number of pancakes
+	 */
+	public void release(UUID orderId, Recipe recipe, int count) {
+		if (orderId == null || recipe == null || count <= 0 || recipe.getMask() == 0) {
+			return;
+		}
+		int mask = recipe.getMask();
+		holdings.computeIfPresent(orderId, (id, held) -> {
+			boolean empty = true;
+			for (int i = 0; i < INGREDIENTS.length; i++) {
+				if ((mask & INGREDIENTS[i].mask()) != 0) {
+					long units = Math.min(held[i], count);
+					held[i] -= units;
+					reserved.getAndAdd(i, -units);
+					available.getAndAdd(i, units);
+				}
+				empty &= held[i] == 0;
+			}
+			return empty ? null : held;
+		});
+	}
+
+	/**
+	 * Gives back every unit held by an order, when it is cancelled or removed.
+	 *
+	 * @param orderId the ID of the order
+	 */
+	public void releaseOrder(UUID orderId) {
+		long[] held = orderId == null ? null : holdings.remove(orderId);
+		if (held != null) {
+			for (int i = 0; i < INGREDIENTS.length; i++) {
+				reserved.getAndAdd(i, -held[i]);
+				available.getAndAdd(i, held[i]);
+			}
+		}
+	}
+
+	/**
+	 * Marks every unit held by an order as used, when it is delivered.
+	 *
+	 * @param orderId the ID of the order
+	 */
+	public void consumeOrder(UUID orderId) {
+		long[] held = orderId == null ? null : holdings.remove(orderId);
+		if (held != null) {
+			for (int i = 0; i < INGREDIENTS.length; i++) {
+				reserved.getAndAdd(i, -held[i]);
+				consumed.getAndAdd(i, held[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the units of an ingredient free to reserve.
+	 *
+	 * @param ingredient the ingredient
+	 * @return the available units
+	 */
+	public long getAvailable(Ingredient ingredient) {
+		return available.get(ingredient.ordinal());
+	}
+
+	/**
+	 * Returns the units of an ingredient held by open orders.
+	 *
+	 * @param ingredient the ingredient
+	 * @return the reserved units
+	 */
+	public long getReserved(Ingredient ingredient) {
+		return reserved.get(ingredient.ordinal());
+	}
+
+	/**
+	 * Returns the units of an ingredient used by delivered orders.
+	 *
+	 * @param ingredient the ingredient
+	 * @return the consumed units
+	 */
+	public long getConsumed(Ingredient ingredient) {
+		return consumed.get(ingredient.ordinal());
+	}
+
+	/**
+	 * Returns the units of an ingredient held by an order.
+	 *
+	 * @param orderId    the ID of the order
+	 * @param ingredient the ingredient
+	 * @return the units reserved for the order
+	 */
+	public long getReserved(UUID orderId, Ingredient ingredient) {
+		long[] held = holdings.get(orderId);
+		return held == null ? 0 : held[ingredient.ordinal()];
+	}
+}
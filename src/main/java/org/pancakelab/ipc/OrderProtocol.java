@@ -0,0 +1,61 @@
+package org.pancakelab.ipc;
+
+/**
+ * Constants of the binary order protocol served by {@link OrderSocketServer}.
+ *
+ * <p>Every request and response is a frame: a big-endian {@code int} length of the rest of the frame, then a
+ * one-byte opcode (request) or status (response), an {@code int} request ID chosen by the client and echoed in
+ * the response, and the payload. Clients may send any number of requests without waiting; responses come back
+ * in request order. Order IDs are two {@code long}s, most significant first.</p>
+ *
+ * <pre>
+ * opcode              request payload                        response payload
+ * CREATE_ORDER        int building, int room                 order ID
+ * ADD_PANCAKES        order ID, byte recipe mask, int count  int pancake count
+ * REMOVE_PANCAKES     order ID, int count                    int pancake count
+ * VIEW_ORDER          order ID                               byte status, int building, int room, int pancake count,
+ *                                                            double total price, short item count,
+ *                                                            per item: byte recipe mask, double unit price, int quantity
+ * CONFIRM_ORDER       order ID                               (empty)
+ * CANCEL_ORDER        order ID                               (empty)
+ * LIST_BY_STATUS      byte status, int limit                 int total, int returned, order IDs
+ * </pre>
+ *
+ * An order with more than {@link #MAX_VIEW_ITEMS} line items does not fit in one VIEW_ORDER response and gets
+ * {@link #CONFLICT} instead.
+ *
+ * A failed request gets a non-OK status and a short UTF-8 error message as payload: the message length as
+ * an unsigned byte, then its bytes. Statuses are {@link org.pancakelab.model.constant.OrderStatus} ordinals and
+ * recipe masks are {@link org.pancakelab.model.pancake.Recipe#getMask()} values.
+ */
+public final class OrderProtocol {
+
+	/** Largest frame accepted, length prefix excluded */
+	public static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+	/** Bytes of a frame header after the length prefix: opcode or status, and request ID */
+	public static final int HEADER_LENGTH = 5;
+
+	/** Most line items a VIEW_ORDER response carries: what fits in a frame after the order's fixed fields */
+	public static final int MAX_VIEW_ITEMS = (MAX_FRAME_LENGTH - HEADER_LENGTH - (1 + 4 + 4 + 4 + 8 + 2)) / (1 + 8 + 4);
+
+	public static final byte CREATE_ORDER = 1;
+	public static final byte ADD_PANCAKES = 2;
+	public static final byte REMOVE_PANCAKES = 3;
+	public static final byte VIEW_ORDER = 4;
+	public static final byte CONFIRM_ORDER = 5;
+	public static final byte CANCEL_ORDER = 6;
+	public static final byte LIST_BY_STATUS = 7;
+
+	public static final byte OK = 0;
+	/** The request is malformed or its arguments are invalid */
+	public static final byte BAD_REQUEST = 1;
+	/** The order's status, or its size, does not allow the operation */
+	public static final byte CONFLICT = 2;
+	public static final byte NOT_FOUND = 3;
+	public static final byte UNKNOWN_OPCODE = 4;
+	public static final byte SERVER_ERROR = 5;
+
+	private OrderProtocol() {
+	}
+}
@@ -0,0 +1,347 @@
+package org.pancakelab.ipc;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.LineItem;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Serves the {@link OrderProtocol} on a Unix domain socket, for point-of-sale processes on the same host.
+ *
+ * <p>Each connection is served by its own thread with one direct read buffer and one direct write buffer,
+ * reused for the life of the connection. The thread decodes every complete frame it has read, appends each
+ * response to the write buffer, and writes them all out once no complete frame is left, so a client that
+ * pipelines many requests gets its responses back in a few writes. Requests call the services directly.</p>
+ *
+ * <p>The server is meant for trusted clients on the same host, which the socket file's permissions decide.
+ * Each connection takes a platform thread for as long as it is open, so at most {@code maxConnections} are
+ * served at a time; connections beyond that are closed as soon as they are accepted.</p>
+ *
+ * <p>Confirming claims the order in the pipeline before its status is checked, so of two concurrent confirms
+ * of the same order one succeeds and the other gets {@link OrderProtocol#CONFLICT}. Processing failures are
+ * logged.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderSocketServer server = new OrderSocketServer(orderService, pancakeService, pipeline, Path.of("data/orders.sock"));
+ * server.start();
+ * </pre>
+ */
+public class OrderSocketServer implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderSocketServer.class);
+
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+	/** Room kept in the write buffer for the largest response, so appending one never overflows */
+	private static final int MAX_RESPONSE_LENGTH = 4 + OrderProtocol.MAX_FRAME_LENGTH;
+
+	/** Connections served at a time unless another limit is given */
+	public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final OrderPipeline pipeline;
+	private final Path path;
+	private final int maxConnections;
+	private final ServerSocketChannel serverChannel;
+	private final ExecutorService connections;
+	private final Set<SocketChannel> openChannels = ConcurrentHashMap.newKeySet();
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a server bound to the given socket file, replacing a file left behind by an earlier run.
+	 * Connections are accepted once {@link #start()} is called.
+	 *
+	 * @param orderService   the service managing the orders
+	 * @param pancakeService the service managing the pancakes
+	 * @param pipeline       processes confirmed orders
+	 * @param path           the socket file
+	 * @throws IOException if the socket cannot be bound
+	 */
+	public OrderSocketServer(OrderService orderService, PancakeService pancakeService, OrderPipeline pipeline,
+							 Path path) throws IOException {
+		this(orderService, pancakeService, pipeline, path, DEFAULT_MAX_CONNECTIONS);
+	}
+
+	/**
+	 * Constructs a server bound to the given socket file, serving at most the given number of connections at a time.
+	 *
+	 * @param orderService   the service managing the orders
+	 * @param pancakeService the service managing the pancakes
+	 * @param pipeline       processes confirmed orders
+	 * @param path           the socket file
+	 * @param maxConnections connections served at a time; further ones are closed when accepted
+	 * @throws IOException if the socket cannot be bound
+	 */
+	public OrderSocketServer(OrderService orderService, PancakeService pancakeService, OrderPipeline pipeline,
+							 Path path, int maxConnections) throws IOException {
+		if (orderService == null || pancakeService == null || pipeline == null || path == null || maxConnections <= 0) {
+			throw new IllegalArgumentException("Invalid socket server configuration");
+		}
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.pipeline = pipeline;
+		this.path = path;
+		this.maxConnections = maxConnections;
+		Files.deleteIfExists(path);
+		this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		serverChannel.bind(UnixDomainSocketAddress.of(path));
+		this.connections = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "order-socket");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts accepting connections on a daemon thread.
+	 */
+	public void start() {
+		connections.execute(this::accept);
+		logger.info("Order socket listening on {}", path);
+	}
+
+	/**
+	 * Returns the socket file.
+	 *
+	 * @return the path the server is bound to
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	private void accept() {
+		while (!closed) {
+			try {
+				SocketChannel channel = serverChannel.accept();
+				if (openChannels.size() >= maxConnections) {
+					logger.warn("Closing order socket connection: {} connections are already open", maxConnections);
+					channel.close();
+					continue;
+				}
+				openChannels.add(channel);
+				connections.execute(() -> serve(channel));
+			} catch (ClosedChannelException e) {
+				return;
+			} catch (IOException | RejectedExecutionException e) {
+				if (!closed) {
+					logger.warn("Could not accept an order socket connection", e);
+				}
+			}
+		}
+	}
+
+	private void serve(SocketChannel channel) {
+		ByteBuffer in = ByteBuffer.allocateDirect(4 + OrderProtocol.MAX_FRAME_LENGTH);
+		ByteBuffer out = ByteBuffer.allocateDirect(4 * MAX_RESPONSE_LENGTH);
+		try (channel) {
+			while (channel.read(in) >= 0) {
+				in.flip();
+				while (in.remaining() >= 4) {
+					int length = in.getInt(in.position());
+					if (length < OrderProtocol.HEADER_LENGTH || length > OrderProtocol.MAX_FRAME_LENGTH) {
+						logger.warn("Closing order socket connection after a frame of {} bytes", length);
+						return;
+					}
+					if (in.remaining() < 4 + length) {
+						break;
+					}
+					if (out.remaining() < MAX_RESPONSE_LENGTH) {
+						flush(channel, out);
+					}
+					int frameEnd = in.position() + 4 + length;
+					int limit = in.limit();
+					in.position(in.position() + 4).limit(frameEnd);
+					handle(in, out);
+					in.limit(limit).position(frameEnd);
+				}
+				in.compact();
+				flush(channel, out);
+			}
+		} catch (IOException e) {
+			if (!closed) {
+				logger.debug("Order socket connection closed", e);
+			}
+		} finally {
+			openChannels.remove(channel);
+		}
+	}
+
+	private static void flush(SocketChannel channel, ByteBuffer out) throws IOException {
+		out.flip();
+		while (out.hasRemaining()) {
+			channel.write(out);
+		}
+		out.clear();
+	}
+
+	/**
+	 * Handles one request frame, positioned after its length prefix, and appends the response frame.
+	 */
+	private void handle(ByteBuffer request, ByteBuffer out) {
+		byte opcode = request.get();
+		int requestId = request.getInt();
+		int start = out.position();
+		out.putInt(0).put(OrderProtocol.OK).putInt(requestId);
+		try {
+			if (!execute(opcode, request, out)) {
+				error(out, start, requestId, OrderProtocol.UNKNOWN_OPCODE, "Unknown opcode " + opcode);
+				return;
+			}
+			if (request.hasRemaining()) {
+				error(out, start, requestId, OrderProtocol.BAD_REQUEST, "Unexpected bytes after the request");
+				return;
+			}
+		} catch (BufferUnderflowException e) {
+			error(out, start, requestId, OrderProtocol.BAD_REQUEST, "Truncated request");
+			return;
+		} catch (NoSuchElementException e) {
+			error(out, start, requestId, OrderProtocol.NOT_FOUND, e.getMessage());
+			return;
+		} catch (IllegalArgumentException e) {
+			error(out, start, requestId, OrderProtocol.BAD_REQUEST, e.getMessage());
+			return;
+		} catch (IllegalStateException e) {
+			error(out, start, requestId, OrderProtocol.CONFLICT, e.getMessage());
+			return;
+		} catch (RuntimeException e) {
+			logger.error("Order socket request {} failed", opcode, e);
+			error(out, start, requestId, OrderProtocol.SERVER_ERROR, "Internal error");
+			return;
+		}
+		out.putInt(start, out.position() - start - 4);
+	}
+
+	/**
+	 * Runs a request and writes its response payload.
+	 *
+	 * @return {@code false} if the opcode is unknown
+	 */
+	private boolean execute(byte opcode, ByteBuffer request, ByteBuffer out) {
+		switch (opcode) {
+			case OrderProtocol.CREATE_ORDER -> {
+				int building = request.getInt();
+				int room = request.getInt();
+				putId(out, orderService.createOrder(building, room).getId());
+			}
+			case OrderProtocol.ADD_PANCAKES -> {
+				Order order = order(request);
+				Recipe recipe = Recipe.of(request.get());
+				int count = request.getInt();
+				pancakeService.addPancakes(order, new RecipePancake(recipe), count);
+				out.putInt(pancakeService.countPancakes(order.getId()));
+			}
+			case OrderProtocol.REMOVE_PANCAKES -> {
+				Order order = order(request);
+				pancakeService.removePancakes(order.getId(), request.getInt(), orderService.getOrderRepository());
+				out.putInt(pancakeService.countPancakes(order.getId()));
+			}
+			case OrderProtocol.VIEW_ORDER -> {
+				Order order = order(request);
+				OrderLines lines = pancakeService.getOrderLines(order.getId());
+				List<LineItem> items = lines.getItems();
+				if (items.size() > OrderProtocol.MAX_VIEW_ITEMS) {
+					throw new IllegalStateException("Order has " + items.size() + " line items, more than "
+							+ OrderProtocol.MAX_VIEW_ITEMS + " can be viewed");
+				}
+				out.put((byte) order.getStatus().ordinal()).putInt(order.getBuilding()).putInt(order.getRoom())
+						.putInt(lines.getPancakeCount()).putDouble(lines.getTotalPrice()).putShort((short) items.size());
+				for (LineItem item : items) {
+					out.put((byte) item.recipe().getMask()).putDouble(item.unitPrice()).putInt(item.quantity());
+				}
+			}
+			case OrderProtocol.CONFIRM_ORDER -> {
+				UUID orderId = order(request).getId();
+				pipeline.submitIf(orderId, confirmed -> confirmed.getStatus() == OrderStatus.CREATED)
+						.whenComplete((processed, failure) -> {
+							if (failure != null) {
+								logger.warn("Order {} could not be processed: {}", orderId, failure.getMessage());
+							}
+						});
+			}
+			case OrderProtocol.CANCEL_ORDER -> {
+				Order order = order(request);
+				orderService.cancelOrder(order.getId(), pancakeService.countPancakes(order.getId()));
+			}
+			case OrderProtocol.LIST_BY_STATUS -> {
+				int status = request.get();
+				int limit = request.getInt();
+				if (status < 0 || status >= STATUSES.length || limit < 0) {
+					throw new IllegalArgumentException("Invalid status or limit");
+				}
+				Set<UUID> orderIds = orderService.listOrdersByStatus(STATUSES[status]);
+				int returned = Math.min(Math.min(limit, orderIds.size()), (OrderProtocol.MAX_FRAME_LENGTH - 64) / 16);
+				out.putInt(orderIds.size()).putInt(returned);
+				Iterator<UUID> iterator = orderIds.iterator();
+				for (int i = 0; i < returned; i++) {
+					putId(out, iterator.next());
+				}
+			}
+			default -> {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Order order(ByteBuffer request) {
+		UUID orderId = new UUID(request.getLong(), request.getLong());
+		return orderService.getOrderRepository().findById(orderId)
+				.orElseThrow(() -> new NoSuchElementException("Order not found: " + orderId));
+	}
+
+	private static void putId(ByteBuffer out, UUID orderId) {
+		out.putLong(orderId.getMostSignificantBits()).putLong(orderId.getLeastSignificantBits());
+	}
+
+	/**
+	 * Replaces the response started at {@code start} with an error frame.
+	 */
+	private static void error(ByteBuffer out, int start, int requestId, byte status, String message) {
+		byte[] text = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(text.length, 255);
+		out.position(start);
+		out.putInt(OrderProtocol.HEADER_LENGTH + 1 + length).put(status).putInt(requestId)
+				.put((byte) length).put(text, 0, length);
+	}
+
+	/**
+	 * Stops accepting connections, closes the open ones and removes the socket file.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			serverChannel.close();
+			for (SocketChannel channel : openChannels) {
+				channel.close();
+			}
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			logger.warn("Could not close the order socket", e);
+		}
+		connections.shutdown();
+	}
+}
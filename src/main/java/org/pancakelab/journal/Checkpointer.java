@@ -0,0 +1,114 @@
+package org.pancakelab.journal;
+
+import org.pancakelab.model.order.Order;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Periodically writes an {@link OrderSnapshot} of the journaled services and compacts the journal behind it,
+ * so a restart only loads the snapshot and replays the records appended since.
+ *
+ * <p>Changes are held back only while the cut is taken: the journal position, and for each order its status and a
+ * reference to its immutable {@link org.pancakelab.model.order.OrderLines}. The line items are read, encoded and
+ * written afterwards, while the services keep running.</p>
+ *
+ * Example usage:
+ * <pre>
+ * Checkpointer checkpointer = new Checkpointer(journal, orderService, pancakeService);
+ * checkpointer.start(5, TimeUnit.MINUTES);
+ * </pre>
+ */
+public class Checkpointer implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(Checkpointer.class);
+
+	private final FileJournal journal;
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final Path snapshotPath;
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructs a checkpointer writing its snapshots next to the journal.
+	 *
+	 * @param journal        the journal attached to both services
+	 * @param orderService   the service whose orders are captured
+	 * @param pancakeService the service whose pancakes are captured
+	 */
+	public Checkpointer(FileJournal journal, OrderService orderService, PancakeService pancakeService) {
+		this.journal = journal;
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.snapshotPath = snapshotPath(journal.getPath());
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "order-checkpointer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Returns the snapshot file kept next to the given journal.
+	 *
+	 * @param journalPath the journal file
+	 * @return the snapshot file of that journal
+	 */
+	public static Path snapshotPath(Path journalPath) {
+		return journalPath.resolveSibling(journalPath.getFileName() + ".snapshot");
+	}
+
+	/**
+	 * Takes a checkpoint every {@code period}.
+	 *
+	 * @param period the time between checkpoints
+	 * @param unit   the unit of the period
+	 */
+	public void start(long period, TimeUnit unit) {
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				checkpoint();
+			} catch (RuntimeException e) {
+				logger.error("Checkpoint failed, journal kept as is", e);
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Captures the orders and pancakes, writes them as the new snapshot and drops the journal records it covers.
+	 *
+	 * @return the journal position of the snapshot
+	 */
+	public synchronized long checkpoint() {
+		List<OrderSnapshot.Entry> entries = new ArrayList<>();
+		long position = journal.capture(() -> {
+			for (Order order : orderService.getAllOrders()) {
+				entries.add(new OrderSnapshot.Entry(order, order.getStatus(), pancakeService.getOrderLines(order.getId())));
+			}
+		});
+		// The snapshot replaces the records before its position, so they must all be on disk first
+		journal.flush();
+		OrderSnapshot.write(snapshotPath, position, entries);
+		journal.compact(position);
+		logger.info("Checkpoint of {} order(s) at journal position {}", entries.size(), position);
+		return position;
+	}
+
+	/**
+	 * Stops taking checkpoints. A checkpoint in progress is finished first.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
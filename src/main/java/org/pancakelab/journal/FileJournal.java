@@ -0,0 +1,653 @@
+package org.pancakelab.journal;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of order and pancake mutations, written through a {@link FileChannel}.
+ *
+ * <p>Appending only encodes the record into an in-memory buffer under a short lock. A single background
+ * flusher swaps that buffer with a second one and writes everything appended since the last flush in one
+ * {@code write} call, so concurrent appenders share writes and fsyncs (group commit). How often the data is
+ * forced to disk is set by the {@link SyncPolicy}.</p>
+ *
+ * <p>Each record is laid out as {@code [int bodyLength][int crc32c(body)][body]}, where the body starts with
+ * a {@link RecordType} byte followed by its fields. {@link #replay(Path, OrderJournal)} stops at the first
+ * incomplete or corrupt record and cuts the file there, so a torn write at the tail is discarded.</p>
+ *
+ * <p>Records are addressed by their <em>position</em>: the number of record bytes appended before them over
+ * the journal's whole history. The file starts with a header holding the position of its first record, so
+ * {@link #compact(long)} can drop the records a snapshot already covers while positions stay stable.</p>
+ */
+public class FileJournal implements OrderJournal, AutoCloseable {
+
+	/**
+	 * When appended records are forced to disk.
+	 */
+	public enum SyncPolicy {
+		/** Never force; the operating system writes the data back when it chooses. */
+		NONE,
+		/** Force at most once per sync interval; appenders never wait for the disk. */
+		INTERVAL,
+		/** Force after every flush; appenders wait until their record is on disk. */
+		ALWAYS
+	}
+
+	/** Record types; the ordinal is written to the file, so new types must be added at the end. */
+	enum RecordType {
+		ORDER_CREATED, PANCAKES_ADDED, PANCAKES_REMOVED, PANCAKES_CLEARED, STATUS_CHANGED, ORDER_DELETED
+	}
+
+	/** Marks a journal file; followed by the position of the file's first record */
+	private static final int FILE_MAGIC = 0x504C4A31;
+	private static final int FILE_HEADER_BYTES = 12;
+	private static final int HEADER_BYTES = 8;
+	private static final int UUID_BYTES = 16;
+	private static final int DEFAULT_BUFFER_BYTES = 256 * 1024;
+
+	private final Path path;
+	/** Open journal file; replaced by the flusher when the journal is compacted */
+	private FileChannel channel;
+	private final SyncPolicy policy;
+	private final long syncIntervalNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition dataAvailable = lock.newCondition();
+	private final Condition spaceAvailable = lock.newCondition();
+	private final Condition flushed = lock.newCondition();
+	private final CRC32C crc = new CRC32C();
+
+	/** Held shared by each change in progress and exclusively by {@link #capture(Runnable)} */
+	private final ReentrantReadWriteLock changeGate = new ReentrantReadWriteLock();
+
+	/** Buffer receiving new records; guarded by {@link #lock} */
+	private ByteBuffer active;
+	/** Buffer being written by the flusher; only touched by the flusher thread outside the lock */
+	private ByteBuffer flushing;
+
+	/** Position of the first record in the file; only changed by the flusher */
+	private long basePosition;
+	/** Position after the last appended record */
+	private long appendedPosition;
+	/** Position up to which records have been written to the channel */
+	private long writtenPosition;
+	/** Position up to which records are known to be on disk */
+	private long durablePosition;
+	/** Position before which {@link #compact(long)} asked to drop the records, or -1 */
+	private long compactRequested = -1;
+	/** Whether {@link #flush()} asked for a force regardless of the sync policy */
+	private boolean syncRequested;
+	private boolean closed;
+	private IOException failure;
+
+	private final Thread flusher;
+
+	/**
+	 * Opens the journal at the given path for appending, creating it if needed.
+	 * Call {@link #replay(Path, OrderJournal)} first to recover the existing records.
+	 *
+	 * @param path           the journal file
+	 * @param policy         when appended records are forced to disk
+	 * @param syncIntervalMs the maximum time between forces for {@link SyncPolicy#INTERVAL}
+	 * @throws UncheckedIOException if the file cannot be opened
+	 */
+	public FileJournal(Path path, SyncPolicy policy, long syncIntervalMs) {
+		this(path, policy, syncIntervalMs, DEFAULT_BUFFER_BYTES);
+	}
+
+	FileJournal(Path path, SyncPolicy policy, long syncIntervalMs, int bufferBytes) {
+		if (path == null || policy == null || syncIntervalMs <= 0 || bufferBytes < 64) {
+			throw new IllegalArgumentException("Invalid journal configuration");
+		}
+		this.path = path;
+		this.policy = policy;
+		this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMs);
+		this.active = ByteBuffer.allocate(bufferBytes);
+		this.flushing = ByteBuffer.allocate(bufferBytes);
+		try {
+			Path parent = path.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long size = channel.size();
+			if (size < FILE_HEADER_BYTES) {
+				// New file, or one whose header never made it to disk and so holds no records
+				channel.truncate(0);
+				writeFileHeader(channel, 0);
+				channel.force(true);
+				size = FILE_HEADER_BYTES;
+			} else {
+				basePosition = readBasePosition(channel, path);
+			}
+			channel.position(size);
+			appendedPosition = writtenPosition = durablePosition = basePosition + size - FILE_HEADER_BYTES;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open journal " + path, e);
+		}
+		flusher = new Thread(this::flushLoop, "order-journal-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Returns the journal file.
+	 *
+	 * @return the path of the journal
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the position right after the last appended record.
+	 *
+	 * @return the appended position
+	 */
+	public long getPosition() {
+		lock.lock();
+		try {
+			return appendedPosition;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void beginChange() {
+		changeGate.readLock().lock();
+	}
+
+	@Override
+	public void endChange() {
+		changeGate.readLock().unlock();
+	}
+
+	/**
+	 * Runs {@code capture} while no change is in progress, and returns the position that the captured state
+	 * corresponds to: every record before it is reflected in the capture, and none after it.
+	 * Changes wait while {@code capture} runs, so it should only copy references and return.
+	 *
+	 * @param capture copies the state of the journaled services
+	 * @return the journal position matching the captured state
+	 */
+	public long capture(Runnable capture) {
+		changeGate.writeLock().lock();
+		try {
+			capture.run();
+			return getPosition();
+		} finally {
+			changeGate.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Drops the records before the given position, once a snapshot covering them is safely on disk.
+	 * The records after it are copied to a new file that atomically replaces the journal; appends go on
+	 * into the in-memory buffer meanwhile.
+	 *
+	 * @param position a position returned by {@link #capture(Runnable)}
+	 * @throws UncheckedIOException if the journal cannot be rewritten
+	 */
+	public void compact(long position) {
+		lock.lock();
+		try {
+			if (position > appendedPosition) {
+				throw new IllegalArgumentException("Cannot compact past the end of the journal: " + position);
+			}
+			compactRequested = Math.max(compactRequested, position);
+			dataAvailable.signal();
+			while (basePosition < position && failure == null && !closed) {
+				flushed.awaitUninterruptibly();
+			}
+			checkFailure();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// --- OrderJournal ---
+
+	@Override
+	public void orderCreated(UUID orderId, int building, int room) {
+		long end;
+		lock.lock();
+		try {
+			int start = begin(RecordType.ORDER_CREATED, UUID_BYTES + 8);
+			putUuid(orderId);
+			active.putInt(building);
+			active.putInt(room);
+			end = commit(start);
+		} finally {
+			lock.unlock();
+		}
+		awaitDurable(end);
+	}
+
+	@Override
+	public void pancakesAdded(UUID orderId, Recipe recipe, double price, int count) {
+		long end;
+		lock.lock();
+		try {
+			int start = begin(RecordType.PANCAKES_ADDED, UUID_BYTES + 16);
+			putUuid(orderId);
+			active.putInt(recipe.getMask());
+			active.putDouble(price);
+			active.putInt(count);
+			end = commit(start);
+		} finally {
+			lock.unlock();
+		}
+		awaitDurable(end);
+	}
+
+	@Override
+	public void pancakesRemoved(UUID orderId, int count) {
+		long end;
+		lock.lock();
+		try {
+			int start = begin(RecordType.PANCAKES_REMOVED, UUID_BYTES + 4);
+			putUuid(orderId);
+			active.putInt(count);
+			end = commit(start);
+		} finally {
+			lock.unlock();
+		}
+		awaitDurable(end);
+	}
+
+	@Override
+	public void pancakesCleared(UUID orderId) {
+		appendOrderRecord(RecordType.PANCAKES_CLEARED, orderId);
+	}
+
+	@Override
+	public void statusChanged(UUID orderId, OrderStatus status) {
+		long end;
+		lock.lock();
+		try {
+			int start = begin(RecordType.STATUS_CHANGED, UUID_BYTES + 1);
+			putUuid(orderId);
+			active.put((byte) status.ordinal());
+			end = commit(start);
+		} finally {
+			lock.unlock();
+		}
+		awaitDurable(end);
+	}
+
+	@Override
+	public void orderDeleted(UUID orderId) {
+		appendOrderRecord(RecordType.ORDER_DELETED, orderId);
+	}
+
+	// --- Flushing ---
+
+	/**
+	 * Writes every record appended so far and forces it to disk, whatever the sync policy.
+	 *
+	 * @throws UncheckedIOException if the journal cannot be written
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			long target = appendedPosition;
+			syncRequested = true;
+			dataAvailable.signal();
+			while (durablePosition < target && failure == null) {
+				flushed.awaitUninterruptibly();
+			}
+			checkFailure();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Flushes the remaining records, forces them to disk unless the policy is {@link SyncPolicy#NONE},
+	 * and closes the file.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			dataAvailable.signal();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot close journal " + path, e);
+		}
+	}
+
+	private void appendOrderRecord(RecordType type, UUID orderId) {
+		long end;
+		lock.lock();
+		try {
+			int start = begin(type, UUID_BYTES);
+			putUuid(orderId);
+			end = commit(start);
+		} finally {
+			lock.unlock();
+		}
+		awaitDurable(end);
+	}
+
+	/**
+	 * Reserves room for a record in the active buffer and writes its type. Must hold {@link #lock}.
+	 *
+	 * @return the buffer position where the record starts
+	 */
+	private int begin(RecordType type, int fieldBytes) {
+		checkFailure();
+		if (closed) {
+			throw new IllegalStateException("Journal is closed: " + path);
+		}
+		int recordBytes = HEADER_BYTES + 1 + fieldBytes;
+		while (active.remaining() < recordBytes) {
+			dataAvailable.signal();
+			spaceAvailable.awaitUninterruptibly();
+			checkFailure();
+		}
+		int start = active.position();
+		active.position(start + HEADER_BYTES);
+		active.put((byte) type.ordinal());
+		return start;
+	}
+
+	/**
+	 * Fills in the header of the record started at {@code start} and wakes the flusher. Must hold {@link #lock}.
+	 *
+	 * @return the file offset right after the record
+	 */
+	private long commit(int start) {
+		int bodyStart = start + HEADER_BYTES;
+		int bodyLength = active.position() - bodyStart;
+		crc.reset();
+		crc.update(active.array(), active.arrayOffset() + bodyStart, bodyLength);
+		active.putInt(start, bodyLength);
+		active.putInt(start + 4, (int) crc.getValue());
+		appendedPosition += HEADER_BYTES + bodyLength;
+		dataAvailable.signal();
+		return appendedPosition;
+	}
+
+	private void putUuid(UUID uuid) {
+		active.putLong(uuid.getMostSignificantBits());
+		active.putLong(uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Waits until the record ending at {@code end} is on disk, if the sync policy requires it.
+	 */
+	private void awaitDurable(long end) {
+		if (policy != SyncPolicy.ALWAYS) {
+			return;
+		}
+		lock.lock();
+		try {
+			while (durablePosition < end && failure == null) {
+				flushed.awaitUninterruptibly();
+			}
+			checkFailure();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void checkFailure() {
+		if (failure != null) {
+			throw new UncheckedIOException("Journal write failed: " + path, failure);
+		}
+	}
+
+	/**
+	 * Flusher thread: repeatedly swaps the buffers, writes what was appended and forces it as the policy requires.
+	 */
+	private void flushLoop() {
+		long lastSync = System.nanoTime();
+		try {
+			while (true) {
+				long target;
+				long compactTo;
+				boolean sync;
+				boolean stop;
+				lock.lock();
+				try {
+					while (active.position() == 0 && !closed && !syncRequested && compactRequested < 0
+							&& !intervalSyncDue(lastSync)) {
+						if (policy == SyncPolicy.INTERVAL && writtenPosition > durablePosition) {
+							dataAvailable.awaitNanos(syncIntervalNanos - (System.nanoTime() - lastSync));
+						} else {
+							dataAvailable.await();
+						}
+					}
+					ByteBuffer full = active;
+					active = flushing;
+					flushing = full;
+					target = appendedPosition;
+					compactTo = compactRequested;
+					stop = closed;
+					sync = syncRequested || policy == SyncPolicy.ALWAYS
+							|| (stop && policy != SyncPolicy.NONE)
+							|| (policy == SyncPolicy.INTERVAL && System.nanoTime() - lastSync >= syncIntervalNanos);
+					syncRequested = false;
+					spaceAvailable.signalAll();
+				} finally {
+					lock.unlock();
+				}
+
+				flushing.flip();
+				while (flushing.hasRemaining()) {
+					channel.write(flushing);
+				}
+				flushing.clear();
+				if (sync) {
+					channel.force(false);
+					lastSync = System.nanoTime();
+				}
+
+				boolean compacted = compactTo > basePosition && compactTo <= target;
+				if (compacted) {
+					compactFile(compactTo);
+				}
+
+				lock.lock();
+				try {
+					writtenPosition = target;
+					if (sync || compacted || policy == SyncPolicy.NONE) {
+						durablePosition = target;
+					}
+					if (compacted) {
+						basePosition = compactTo;
+					}
+					if (compactTo >= 0 && compactRequested == compactTo) {
+						compactRequested = -1;
+					}
+					flushed.signalAll();
+				} finally {
+					lock.unlock();
+				}
+				if (stop) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			lock.lock();
+			try {
+				failure = e;
+				spaceAvailable.signalAll();
+				flushed.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Copies the records from {@code position} onwards into a new file that replaces the journal.
+	 * Runs on the flusher thread, after everything appended so far has been written.
+	 */
+	private void compactFile(long position) throws IOException {
+		Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFileHeader(out, position);
+			long from = FILE_HEADER_BYTES + position - basePosition;
+			long end = channel.position();
+			while (from < end) {
+				from += channel.transferTo(from, end - from, out);
+			}
+			out.force(true);
+		}
+		Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		FileChannel previous = channel;
+		channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		previous.close();
+	}
+
+	private static void writeFileHeader(FileChannel channel, long basePosition) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+		header.putInt(FILE_MAGIC).putLong(basePosition).flip();
+		while (header.hasRemaining()) {
+			channel.write(header, FILE_HEADER_BYTES - header.remaining());
+		}
+		channel.position(FILE_HEADER_BYTES);
+	}
+
+	private static long readBasePosition(FileChannel channel, Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+		}
+		if (header.hasRemaining() || header.getInt(0) != FILE_MAGIC) {
+			throw new IllegalStateException("Not an order journal: " + path);
+		}
+		return header.getLong(4);
+	}
+
+	private boolean intervalSyncDue(long lastSync) {
+		return policy == SyncPolicy.INTERVAL && writtenPosition > durablePosition
+				&& System.nanoTime() - lastSync >= syncIntervalNanos;
+	}
+
+	// --- Replay ---
+
+	/**
+	 * Replays every intact record of the journal at the given path into the handler, in append order.
+	 * A torn or corrupt tail is cut off so that new records are appended right after the last intact one.
+	 *
+	 * @param path    the journal file; a missing file is treated as empty
+	 * @param handler receives the replayed changes
+	 * @return the number of replayed records
+	 * @throws UncheckedIOException if the file cannot be read
+	 * @throws IllegalStateException if the journal has been compacted, so its first records are missing
+	 */
+	public static long replay(Path path, OrderJournal handler) {
+		return replay(path, 0, handler);
+	}
+
+	/**
+	 * Replays the intact records from the given position onwards, typically the position of the snapshot
+	 * the services were restored from. A torn or corrupt tail is cut off as for {@link #replay(Path, OrderJournal)}.
+	 *
+	 * @param path         the journal file; a missing file is treated as empty
+	 * @param fromPosition the position of the first record to replay
+	 * @param handler      receives the replayed changes
+	 * @return the number of replayed records
+	 * @throws UncheckedIOException if the file cannot be read
+	 * @throws IllegalStateException if the journal does not hold the records from {@code fromPosition} onwards
+	 */
+	public static long replay(Path path, long fromPosition, OrderJournal handler) {
+		if (!Files.exists(path)) {
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = channel.size();
+			if (size < FILE_HEADER_BYTES) {
+				return 0;
+			}
+			long basePosition = readBasePosition(channel, path);
+			long from = FILE_HEADER_BYTES + fromPosition - basePosition;
+			if (fromPosition < basePosition || from > size) {
+				throw new IllegalStateException("Journal " + path + " holds records from position " + basePosition
+						+ " to " + (basePosition + size - FILE_HEADER_BYTES) + ", cannot replay from " + fromPosition);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, size - from);
+			long records = replay(buffer, handler);
+			if (from + buffer.position() < size) {
+				channel.truncate(from + buffer.position());
+				channel.force(true);
+			}
+			return records;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot replay journal " + path, e);
+		}
+	}
+
+	/**
+	 * Replays intact records from the buffer's position onwards. On return, the buffer is positioned right
+	 * after the last intact record.
+	 *
+	 * @return the number of replayed records
+	 */
+	static long replay(ByteBuffer buffer, OrderJournal handler) {
+		CRC32C checksum = new CRC32C();
+		RecordType[] types = RecordType.values();
+		OrderStatus[] statuses = OrderStatus.values();
+		long records = 0;
+		while (buffer.remaining() >= HEADER_BYTES) {
+			int start = buffer.position();
+			int bodyLength = buffer.getInt(start);
+			int expectedCrc = buffer.getInt(start + 4);
+			if (bodyLength <= 0 || bodyLength > buffer.remaining() - HEADER_BYTES) {
+				break;
+			}
+			ByteBuffer body = buffer.slice(start + HEADER_BYTES, bodyLength);
+			checksum.reset();
+			checksum.update(body.duplicate());
+			int typeIndex = body.get() & 0xFF;
+			if ((int) checksum.getValue() != expectedCrc || typeIndex >= types.length) {
+				break;
+			}
+			UUID orderId = new UUID(body.getLong(), body.getLong());
+			switch (types[typeIndex]) {
+				case ORDER_CREATED -> handler.orderCreated(orderId, body.getInt(), body.getInt());
+				case PANCAKES_ADDED -> handler.pancakesAdded(orderId, Recipe.of(body.getInt()), body.getDouble(), body.getInt());
+				case PANCAKES_REMOVED -> handler.pancakesRemoved(orderId, body.getInt());
+				case PANCAKES_CLEARED -> handler.pancakesCleared(orderId);
+				case STATUS_CHANGED -> handler.statusChanged(orderId, statuses[body.get()]);
+				case ORDER_DELETED -> handler.orderDeleted(orderId);
+			}
+			buffer.position(start + HEADER_BYTES + bodyLength);
+			records++;
+		}
+		return records;
+	}
+}
@@ -0,0 +1,146 @@
+package org.pancakelab.journal;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Rebuilds {@link OrderService} and {@link PancakeService} state from the latest snapshot and the journal
+ * records appended after it.
+ *
+ * <p>Replayed changes are applied through the services' regular methods, so the restored state goes through
+ * the same validation and indexing as live traffic. The services must not have a journal attached while
+ * recovering, otherwise every replayed change would be appended again.</p>
+ *
+ * Example usage:
+ * <pre>
+ * FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.INTERVAL, orderService, pancakeService);
+ * </pre>
+ */
+public class JournalRecovery implements OrderJournal {
+
+	private static final Logger logger = LoggerFactory.getLogger(JournalRecovery.class);
+
+	/** Sync interval used by {@link #recover} for {@link FileJournal.SyncPolicy#INTERVAL} */
+	public static final long DEFAULT_SYNC_INTERVAL_MS = 50;
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private long skipped;
+
+	/**
+	 * Constructs a recovery that applies replayed changes to the given services.
+	 *
+	 * @param orderService   the service receiving order changes
+	 * @param pancakeService the service receiving pancake changes
+	 */
+	public JournalRecovery(OrderService orderService, PancakeService pancakeService) {
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+	}
+
+	/**
+	 * Loads the journal's snapshot, if any, and replays the journal records after it into the services,
+	 * then opens the journal for appending and attaches it to both services.
+	 *
+	 * @param path           the journal file
+	 * @param policy         when appended records are forced to disk
+	 * @param orderService   the service to restore and journal
+	 * @param pancakeService the service to restore and journal
+	 * @return the opened journal, to be closed on shutdown
+	 */
+	public static FileJournal recover(Path path, FileJournal.SyncPolicy policy,
+									  OrderService orderService, PancakeService pancakeService) {
+		JournalRecovery recovery = new JournalRecovery(orderService, pancakeService);
+		long snapshotPosition = OrderSnapshot.load(Checkpointer.snapshotPath(path), recovery);
+		long records = FileJournal.replay(path, snapshotPosition, recovery);
+		if (snapshotPosition > 0 || records > 0) {
+			logger.info("Recovered {} order(s) from snapshot at position {} and {} journal record(s) in {} ({} skipped)",
+					orderService.getOrderRepository().size(), snapshotPosition, records, path, recovery.skipped);
+		}
+
+		FileJournal journal = new FileJournal(path, policy, DEFAULT_SYNC_INTERVAL_MS);
+		orderService.setJournal(journal);
+		pancakeService.setJournal(journal);
+		return journal;
+	}
+
+	/**
+	 * Returns the number of replayed changes that could not be applied.
+	 *
+	 * @return the skipped change count
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	@Override
+	public void orderCreated(UUID orderId, int building, int room) {
+		apply(() -> orderService.restoreOrder(orderId, building, room));
+	}
+
+	@Override
+	public void pancakesAdded(UUID orderId, Recipe recipe, double price, int count) {
+		apply(() -> {
+			Order order = orderService.findOrderById(orderId);
+			Pancake pancake = pancakeService.createPancakeFromRecipe(recipe, order);
+			pancake.setPrice(price);
+			pancakeService.addPancakes(order, pancake, count);
+		});
+	}
+
+	@Override
+	public void pancakesRemoved(UUID orderId, int count) {
+		apply(() -> pancakeService.removePancakes(orderId, count, orderService.getOrderRepository()));
+	}
+
+	@Override
+	public void pancakesCleared(UUID orderId) {
+		apply(() -> pancakeService.removeAllForOrder(orderId));
+	}
+
+	@Override
+	public void statusChanged(UUID orderId, OrderStatus status) {
+		apply(() -> {
+			switch (status) {
+				case PREPARED -> orderService.prepareOrder(orderId);
+				case COMPLETED -> orderService.completeOrder(orderId);
+				case CANCELLED -> orderService.cancelOrder(orderId, pancakeService.countPancakes(orderId));
+				case DELIVERED -> {
+					if (orderService.markDelivered(orderId) == null) {
+						throw new IllegalStateException("Order " + orderId + " is not PREPARED");
+					}
+				}
+				case CREATED -> {
+				}
+			}
+		});
+	}
+
+	@Override
+	public void orderDeleted(UUID orderId) {
+		apply(() -> orderService.deleteOrder(orderId));
+	}
+
+	/**
+	 * Applies one replayed change. The services journal the changes of each order in the order they applied
+	 * them, so a change is only rejected when the journal disagrees with the snapshot it is replayed onto; such a
+	 * change is skipped and logged rather than aborting the recovery.
+	 */
+	private void apply(Runnable change) {
+		try {
+			change.run();
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			skipped++;
+			logger.warn("Skipped journal record: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package org.pancakelab.journal;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.util.*;
+
+/**
+ * Receives every state change made by {@code OrderService} and {@code PancakeService}.
+ *
+ * <p>The services call it after each successful mutation; {@link FileJournal} appends the changes to
+ * disk, and {@link JournalRecovery} implements it to apply replayed changes to fresh services.</p>
+ *
+ * <p>A service brackets each mutation and its journal call with {@link #beginChange()} and
+ * {@link #endChange()}, so a snapshot can be taken between changes and never sees a change that is
+ * not journaled yet.</p>
+ */
+public interface OrderJournal {
+
+	/** Journal that discards every change; used by services that are not journaled */
+	OrderJournal NONE = new OrderJournal() {
+		@Override
+		public void orderCreated(UUID orderId, int building, int room) {
+		}
+
+		@Override
+		public void pancakesAdded(UUID orderId, Recipe recipe, double price, int count) {
+		}
+
+		@Override
+		public void pancakesRemoved(UUID orderId, int count) {
+		}
+
+		@Override
+		public void pancakesCleared(UUID orderId) {
+		}
+
+		@Override
+		public void statusChanged(UUID orderId, OrderStatus status) {
+		}
+
+		@Override
+		public void orderDeleted(UUID orderId) {
+		}
+	};
+
+	/**
+	 * Called by a service before a change it is going to journal.
+	 */
+	default void beginChange() {
+	}
+
+	/**
+	 * Called by a service once a change started with {@link #beginChange()} is journaled or has failed.
+	 */
+	default void endChange() {
+	}
+
+	/**
+	 * An order was created.
+	 */
+	void orderCreated(UUID orderId, int building, int room);
+
+	/**
+	 * {@code count} pancakes of the given recipe and unit price were added to an order.
+	 */
+	void pancakesAdded(UUID orderId, Recipe recipe, double price, int count);
+
+	/**
+	 * {@code count} pancakes were removed from an order.
+	 */
+	void pancakesRemoved(UUID orderId, int count);
+
+	/**
+	 * All pancakes of an order were removed.
+	 */
+	void pancakesCleared(UUID orderId);
+
+	/**
+	 * An order moved to a new status.
+	 */
+	void statusChanged(UUID orderId, OrderStatus status);
+
+	/**
+	 * An order was deleted.
+	 */
+	void orderDeleted(UUID orderId);
+}
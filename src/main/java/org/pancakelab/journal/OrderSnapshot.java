@@ -0,0 +1,162 @@
+package org.pancakelab.journal;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.LineItem;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary image of every order and its pancakes at one journal position.
+ *
+ * <p>The file holds {@code [int magic][long journalPosition][int orderCount]}, then for each order its ID,
+ * building, room, status and pancake line items, and ends with a CRC32C of everything before it. A snapshot is written to a temporary file and
+ * atomically moved into place, so the file at the snapshot path is always complete.</p>
+ *
+ * <p>{@link #load(Path, OrderJournal)} maps the file and hands its content to an {@link OrderJournal} as the
+ * shortest sequence of changes that rebuilds it, so {@link JournalRecovery} restores snapshots and journal
+ * records the same way.</p>
+ */
+public final class OrderSnapshot {
+
+	private static final int MAGIC = 0x504C5331;
+	private static final int HEADER_BYTES = 16;
+	private static final int ORDER_BYTES = 16 + 4 + 4 + 1 + 4;
+	private static final int LINE_ITEM_BYTES = 1 + 8 + 4;
+	private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+	/**
+	 * One captured order with its pancakes.
+	 *
+	 * @param order  the order
+	 * @param status the order's status when it was captured
+	 * @param lines  the order's pancakes when it was captured; immutable, so only the reference is captured
+	 */
+	public record Entry(Order order, OrderStatus status, OrderLines lines) {
+	}
+
+	private OrderSnapshot() {
+	}
+
+	/**
+	 * Writes a snapshot of the given orders, replacing the file at {@code path} once it is on disk.
+	 *
+	 * @param path     the snapshot file
+	 * @param position the journal position the captured orders correspond to
+	 * @param entries  the captured orders
+	 * @throws UncheckedIOException if the snapshot cannot be written
+	 */
+	public static void write(Path path, long position, List<Entry> entries) {
+		Path partial = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			CRC32C crc = new CRC32C();
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+			buffer.putInt(MAGIC).putLong(position).putInt(entries.size());
+			for (Entry entry : entries) {
+				ensureRoom(channel, buffer, crc, ORDER_BYTES);
+				UUID id = entry.order().getId();
+				buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+				buffer.putInt(entry.order().getBuilding()).putInt(entry.order().getRoom());
+				buffer.put((byte) entry.status().ordinal());
+				List<LineItem> lineItems = entry.lines().getItems();
+				buffer.putInt(lineItems.size());
+				for (LineItem item : lineItems) {
+					ensureRoom(channel, buffer, crc, LINE_ITEM_BYTES);
+					buffer.put((byte) item.recipe().getMask()).putDouble(item.unitPrice()).putInt(item.quantity());
+				}
+			}
+			drain(channel, buffer, crc);
+			buffer.putInt((int) crc.getValue()).flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write snapshot " + path, e);
+		}
+		try {
+			Files.move(partial, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot replace snapshot " + path, e);
+		}
+	}
+
+	/**
+	 * Loads the snapshot at the given path into the handler.
+	 *
+	 * @param path    the snapshot file
+	 * @param handler receives the changes that rebuild the snapshot
+	 * @return the journal position the snapshot corresponds to, or 0 if there is no snapshot
+	 * @throws UncheckedIOException if the file cannot be read
+	 * @throws IllegalStateException if the file is not a complete snapshot
+	 */
+	public static long load(Path path, OrderJournal handler) {
+		if (!Files.exists(path)) {
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_BYTES + 4 || size > Integer.MAX_VALUE) {
+				throw new IllegalStateException("Invalid snapshot size " + size + ": " + path);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			CRC32C crc = new CRC32C();
+			crc.update(buffer.slice(0, (int) size - 4));
+			if (buffer.getInt(0) != MAGIC || buffer.getInt((int) size - 4) != (int) crc.getValue()) {
+				throw new IllegalStateException("Corrupt snapshot: " + path);
+			}
+
+			OrderStatus[] statuses = OrderStatus.values();
+			buffer.position(4);
+			long position = buffer.getLong();
+			int orderCount = buffer.getInt();
+			for (int i = 0; i < orderCount; i++) {
+				UUID orderId = new UUID(buffer.getLong(), buffer.getLong());
+				handler.orderCreated(orderId, buffer.getInt(), buffer.getInt());
+				OrderStatus status = statuses[buffer.get()];
+				int lineItems = buffer.getInt();
+				for (int item = 0; item < lineItems; item++) {
+					handler.pancakesAdded(orderId, Recipe.of(buffer.get()), buffer.getDouble(), buffer.getInt());
+				}
+				// Pancakes can only be added while an order is CREATED, so its status is restored last
+				if (status == OrderStatus.DELIVERED) {
+					handler.statusChanged(orderId, OrderStatus.PREPARED);
+				}
+				if (status != OrderStatus.CREATED) {
+					handler.statusChanged(orderId, status);
+				}
+			}
+			return position;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot load snapshot " + path, e);
+		}
+	}
+
+	private static void ensureRoom(FileChannel channel, ByteBuffer buffer, CRC32C crc, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			drain(channel, buffer, crc);
+		}
+	}
+
+	/**
+	 * Writes out the buffered bytes and adds them to the checksum.
+	 */
+	private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+		buffer.flip();
+		crc.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,168 @@
+package org.pancakelab.logging;
+
+import jdk.jfr.*;
+import org.pancakelab.model.order.Order;
+
+/**
+ * Java Flight Recorder events for the order lifecycle, so order latencies can be lined up with GC pauses,
+ * lock contention and the rest of a recording.
+ *
+ * <p>Each event is begun before the operation and committed after it, so its duration is the time the
+ * operation took. While no recording has the event enabled, {@link Event#begin()} and
+ * {@link Event#shouldCommit()} are no-ops, the event is never filled in, and the JIT removes the unused
+ * allocation, so the events cost close to nothing when recording is off.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderEvents.Created event = new OrderEvents.Created();
+ * event.begin();
+ * ...
+ * event.commitFor(order);
+ * </pre>
+ */
+public final class OrderEvents {
+
+	private OrderEvents() {
+	}
+
+	/**
+	 * Fields shared by every order event.
+	 */
+	@Category({"PancakeLab", "Orders"})
+	@StackTrace(false)
+	public abstract static class OrderEvent extends Event {
+
+		@Label("Order ID")
+		String orderId;
+
+		@Label("Building")
+		int building;
+
+		@Label("Room")
+		int room;
+
+		/**
+		 * Ends and commits the event for the given order, if a recording has it enabled.
+		 *
+		 * @param order the order the event is about
+		 */
+		public void commitFor(Order order) {
+			if (shouldCommit()) {
+				orderId = order.getId().toString();
+				building = order.getBuilding();
+				room = order.getRoom();
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * An order event that also carries the order's pancake count.
+	 */
+	public abstract static class PancakeCountEvent extends OrderEvent {
+
+		@Label("Pancake Count")
+		@Description("Pancakes in the order after the operation, or delivered with it")
+		int pancakeCount;
+
+		/**
+		 * Ends and commits the event for the given order, if a recording has it enabled.
+		 *
+		 * @param order        the order the event is about
+		 * @param pancakeCount the number of pancakes in the order
+		 */
+		public void commitFor(Order order, int pancakeCount) {
+			if (shouldCommit()) {
+				this.pancakeCount = pancakeCount;
+				commitFor(order);
+			}
+		}
+	}
+
+	@Name("org.pancakelab.OrderCreated")
+	@Label("Order Created")
+	public static final class Created extends OrderEvent {
+	}
+
+	@Name("org.pancakelab.OrderPrepared")
+	@Label("Order Prepared")
+	public static final class Prepared extends OrderEvent {
+	}
+
+	@Name("org.pancakelab.OrderCompleted")
+	@Label("Order Completed")
+	public static final class Completed extends OrderEvent {
+	}
+
+	@Name("org.pancakelab.OrderCancelled")
+	@Label("Order Cancelled")
+	public static final class Cancelled extends PancakeCountEvent {
+	}
+
+	@Name("org.pancakelab.OrderDelivered")
+	@Label("Order Delivered")
+	public static final class Delivered extends PancakeCountEvent {
+	}
+
+	@Name("org.pancakelab.PancakesAdded")
+	@Label("Pancakes Added")
+	public static final class PancakesAdded extends PancakeCountEvent {
+
+		@Label("Pancakes Added")
+		int added;
+
+		/**
+		 * Ends and commits the event for the given order, if a recording has it enabled.
+		 *
+		 * @param order        the order the pancakes were added to
+		 * @param added        the number of pancakes added
+		 * @param pancakeCount the number of pancakes in the order afterwards
+		 */
+		public void commitFor(Order order, int added, int pancakeCount) {
+			if (shouldCommit()) {
+				this.added = added;
+				commitFor(order, pancakeCount);
+			}
+		}
+	}
+
+	@Name("org.pancakelab.PancakesRemoved")
+	@Label("Pancakes Removed")
+	public static final class PancakesRemoved extends PancakeCountEvent {
+
+		@Label("Pancakes Removed")
+		int removed;
+
+		/**
+		 * Ends and commits the event for the given order, if a recording has it enabled.
+		 *
+		 * @param order        the order the pancakes were removed from
+		 * @param removed      the number of pancakes removed
+		 * @param pancakeCount the number of pancakes left in the order
+		 */
+		public void commitFor(Order order, int removed, int pancakeCount) {
+			if (shouldCommit()) {
+				this.removed = removed;
+				commitFor(order, pancakeCount);
+			}
+		}
+	}
+
+	@Name("org.pancakelab.OrderProcessStage")
+	@Label("Order Process Stage")
+	@Description("One stage of the order process, run by the order pipeline or by a synchronous processOrder call")
+	public static final class Stage extends PancakeCountEvent {
+
+		@Label("Stage")
+		String stage;
+
+		/**
+		 * Constructs an event for the given stage of the order process.
+		 *
+		 * @param stage the name of the stage
+		 */
+		public Stage(String stage) {
+			this.stage = stage;
+		}
+	}
+}
@@ -1,49 +1,59 @@
 package org.pancakelab.logging;
 
 import org.pancakelab.model.order.Order;
-import org.pancakelab.model.pancake.Pancake;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
+/**
+ * Writes order lifecycle events to the order log.
+ *
+ * <p>Callers pass the pancake counts they already know, and every method checks the log level
+ * before touching its arguments, so a disabled event costs a single level check. The location is
+ * rendered by the logging framework from the building and room numbers, only when the event is written.</p>
+ */
 public class OrderLog {
 
 	private static final Logger logger = LoggerFactory.getLogger(OrderLog.class);
 
-	public static void logAddPancake(Order order, String description, List<Pancake> pancakes) {
-		long count = countPancakesForOrder(order, pancakes);
-		logger.debug("🧇 Added pancake '{}' to order {} ({} pancakes) [{}]",
-				description, order.getId(), count, location(order));
+	public static void logAddPancakes(Order order, String description, int countAdded, int pancakeCount) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("🧇 Added {} pancake(s) '{}' to order {} ({} pancakes) [Building {}, Room {}]",
+					countAdded, description, order.getId(), pancakeCount, order.getBuilding(), order.getRoom());
+		}
 	}
 
-	public static void logRemovePancakes(Order order, int countRemoved, List<Pancake> pancakes) {
-		long count = countPancakesForOrder(order, pancakes);
-		logger.info("🗑️ Removed {} pancake(s) from order {} ({} pancakes left) [{}]",
-				countRemoved, order.getId(), count, location(order));
+	public static void logRemovePancakes(Order order, int countRemoved, int pancakesLeft) {
+		if (logger.isInfoEnabled()) {
+			logger.info("🗑️ Removed {} pancake(s) from order {} ({} pancakes left) [Building {}, Room {}]",
+					countRemoved, order.getId(), pancakesLeft, order.getBuilding(), order.getRoom());
+		}
 	}
 
-	public static void logCancelOrder(Order order, List<Pancake> pancakes) {
-		long count = countPancakesForOrder(order, pancakes);
-		logger.debug("❌ Cancelled order {} with {} pancakes [{}]",
-				order.getId(), count, location(order));
+	public static void logCancelOrder(Order order, int pancakeCount) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("❌ Cancelled order {} with {} pancakes [Building {}, Room {}]",
+					order.getId(), pancakeCount, order.getBuilding(), order.getRoom());
+		}
 	}
 
-	public static void logDeliverOrder(Order order, List<Pancake> pancakes) {
-		long count = countPancakesForOrder(order, pancakes);
-		logger.info("🚚 Delivered order {} with {} pancakes [{}]",
-				order.getId(), count, location(order));
+	public static void logDeliverOrder(Order order, int pancakeCount) {
+		if (logger.isInfoEnabled()) {
+			logger.info("🚚 Delivered order {} with {} pancakes [Building {}, Room {}]",
+					order.getId(), pancakeCount, order.getBuilding(), order.getRoom());
+		}
 	}
 
-	// --- Private utilities ---
-
-	private static long countPancakesForOrder(Order order, List<Pancake> pancakes) {
-		return pancakes.stream()
-				.filter(p -> p.getOrderId().equals(order.getId()))
-				.count();
+	public static void logAbandonOrder(Order order) {
+		if (logger.isInfoEnabled()) {
+			logger.info("⌛ Cancelled abandoned order {} [Building {}, Room {}]",
+					order.getId(), order.getBuilding(), order.getRoom());
+		}
 	}
 
-	private static String location(Order order) {
-		return "Building %d, Room %d".formatted(order.getBuilding(), order.getRoom());
+	public static void logDeliveryOverdue(Order order, long slaMinutes) {
+		if (logger.isWarnEnabled()) {
+			logger.warn("⏰ Order {} missed its {} minute delivery SLA [Building {}, Room {}]",
+					order.getId(), slaMinutes, order.getBuilding(), order.getRoom());
+		}
 	}
-}
\ No newline at end of file
+}
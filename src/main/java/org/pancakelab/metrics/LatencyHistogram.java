@@ -0,0 +1,128 @@
+package org.pancakelab.metrics;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, with log-linear buckets in the style of HdrHistogram.
+ *
+ * <p>Values below 16 get a bucket each; above that, every power of two is split into 16 buckets, so a
+ * reported percentile is within 6.25% of the recorded value across the whole range of a {@code long}, with
+ * a fixed 960 buckets. Recording finds the bucket with a few bit operations and increments it atomically,
+ * without locks or allocation; reading takes a {@link Snapshot} that may miss records made concurrently.</p>
+ *
+ * Example usage:
+ * <pre>
+ * LatencyHistogram histogram = new LatencyHistogram();
+ * long start = System.nanoTime();
+ * ...
+ * histogram.record(System.nanoTime() - start);
+ * long p99 = histogram.snapshot().p99();
+ * </pre>
+ */
+public class LatencyHistogram {
+
+	/** log2 of the number of buckets per power of two */
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Percentiles and totals of a histogram at one point in time, in nanoseconds.
+	 *
+	 * @param count      the number of recorded values
+	 * @param totalNanos the sum of the recorded values
+	 * @param p50        the median
+	 * @param p90        the 90th percentile
+	 * @param p99        the 99th percentile
+	 * @param maxNanos   the largest recorded value
+	 */
+	public record Snapshot(long count, long totalNanos, long p50, long p90, long p99, long maxNanos) {
+
+		/**
+		 * Returns the mean of the recorded values, or 0 if there are none.
+		 */
+		public long mean() {
+			return count == 0 ? 0 : totalNanos / count;
+		}
+	}
+
+	/**
+	 * Records one latency. Negative values, from a clock going backwards, are recorded as 0.
+	 *
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.getAndIncrement(bucketOf(value));
+		totalNanos.add(value);
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Returns the current percentiles and totals.
+	 *
+	 * @return a snapshot of the histogram
+	 */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = counts.get(i);
+			count += copy[i];
+		}
+		long max = maxNanos.get();
+		return new Snapshot(count, totalNanos.sum(), percentile(copy, count, 0.50, max),
+				percentile(copy, count, 0.90, max), percentile(copy, count, 0.99, max), max);
+	}
+
+	/**
+	 * Clears all recorded values. Values recorded while clearing may be partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		totalNanos.reset();
+		maxNanos.set(0);
+	}
+
+	private static long percentile(long[] counts, long count, double fraction, long max) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(count * fraction));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
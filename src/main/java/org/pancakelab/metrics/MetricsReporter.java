@@ -0,0 +1,183 @@
+package org.pancakelab.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Publishes the {@link Operation} histograms: as one JMX MBean per operation under
+ * {@code org.pancakelab:type=Operation}, and as a periodic summary in the application log with the
+ * throughput since the previous summary.
+ *
+ * Example usage:
+ * <pre>
+ * MetricsReporter reporter = new MetricsReporter();
+ * reporter.registerMBeans();
+ * reporter.start(1, TimeUnit.MINUTES);
+ * </pre>
+ */
+public class MetricsReporter implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+	private static final String DOMAIN = "org.pancakelab";
+
+	private final ScheduledExecutorService scheduler;
+
+	/** Count of each operation at the previous report, for the throughput */
+	private final long[] previousCounts = new long[Operation.values().length];
+	private long previousNanos = System.nanoTime();
+
+	/**
+	 * Constructs a reporter; nothing is published until {@link #registerMBeans()} or {@link #start} is called.
+	 */
+	public MetricsReporter() {
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "metrics-reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Registers an MBean per operation with the platform MBean server. Operations already registered,
+	 * for example by another reporter, are left as they are.
+	 */
+	public void registerMBeans() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (Operation operation : Operation.values()) {
+			try {
+				ObjectName name = objectName(operation);
+				if (!server.isRegistered(name)) {
+					server.registerMBean(new OperationStats(operation), name);
+				}
+			} catch (InstanceAlreadyExistsException e) {
+				// Registered concurrently
+			} catch (JMException e) {
+				logger.warn("Could not register the MBean of {}", operation.getLabel(), e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the JMX name of an operation's MBean.
+	 *
+	 * @param operation the operation
+	 * @return the object name
+	 */
+	public static ObjectName objectName(Operation operation) throws MalformedObjectNameException {
+		return new ObjectName(DOMAIN + ":type=Operation,name=" + operation.getLabel());
+	}
+
+	/**
+	 * Logs a summary every {@code period}.
+	 *
+	 * @param period the time between summaries
+	 * @param unit   the unit of the period
+	 */
+	public void start(long period, TimeUnit unit) {
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				String report = report();
+				if (!report.isEmpty()) {
+					logger.info("Operation latencies:\n{}", report);
+				}
+			} catch (RuntimeException e) {
+				logger.error("Metrics report failed", e);
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Formats one line per operation called so far: its count, throughput since the previous report,
+	 * and latency percentiles in microseconds.
+	 *
+	 * @return the report, or an empty string if no operation was called yet
+	 */
+	public synchronized String report() {
+		long now = System.nanoTime();
+		double seconds = Math.max(1, now - previousNanos) / 1e9;
+		previousNanos = now;
+		StringBuilder report = new StringBuilder();
+		for (Operation operation : Operation.values()) {
+			LatencyHistogram.Snapshot snapshot = operation.getHistogram().snapshot();
+			long calls = snapshot.count() - previousCounts[operation.ordinal()];
+			previousCounts[operation.ordinal()] = snapshot.count();
+			if (snapshot.count() == 0) {
+				continue;
+			}
+			report.append(String.format("%-24s count=%d rate=%.1f/s mean=%dus p50=%dus p90=%dus p99=%dus max=%dus%n",
+					operation.getLabel(), snapshot.count(), Math.max(0, calls) / seconds, micros(snapshot.mean()),
+					micros(snapshot.p50()), micros(snapshot.p90()), micros(snapshot.p99()), micros(snapshot.maxNanos())));
+		}
+		return report.toString();
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * Stops logging summaries. The MBeans stay registered.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * MBean reading one operation's histogram.
+	 */
+	private static final class OperationStats implements OperationStatsMXBean {
+
+		private final Operation operation;
+
+		OperationStats(Operation operation) {
+			this.operation = operation;
+		}
+
+		@Override
+		public long getCount() {
+			return operation.getHistogram().snapshot().count();
+		}
+
+		@Override
+		public long getMeanMicros() {
+			return micros(operation.getHistogram().snapshot().mean());
+		}
+
+		@Override
+		public long getP50Micros() {
+			return micros(operation.getHistogram().snapshot().p50());
+		}
+
+		@Override
+		public long getP90Micros() {
+			return micros(operation.getHistogram().snapshot().p90());
+		}
+
+		@Override
+		public long getP99Micros() {
+			return micros(operation.getHistogram().snapshot().p99());
+		}
+
+		@Override
+		public long getMaxMicros() {
+			return micros(operation.getHistogram().snapshot().maxNanos());
+		}
+
+		@Override
+		public void reset() {
+			operation.getHistogram().reset();
+		}
+	}
+}
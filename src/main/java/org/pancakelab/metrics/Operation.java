@@ -0,0 +1,67 @@
+package org.pancakelab.metrics;
+
+/**
+ * The instrumented service operations and order process stages, each with its own latency histogram.
+ *
+ * <p>Callers read the clock once before the operation and pass it to {@link #record(long)}, which reads it
+ * again and returns that time, so consecutive stages can be timed with one clock read each. Only calls that
+ * complete normally are recorded; a call that throws is left out of the latencies.</p>
+ *
+ * Example usage:
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * Operation.CREATE_ORDER.record(start);
+ * </pre>
+ */
+public enum Operation {
+	CREATE_ORDER("createOrder"),
+	CANCEL_ORDER("cancelOrder"),
+	PREPARE_ORDER("prepareOrder"),
+	COMPLETE_ORDER("completeOrder"),
+	ADD_PANCAKES("addPancakes"),
+	REMOVE_PANCAKES("removePancakes"),
+	DELIVER_ORDER("deliverOrder"),
+	DISPATCH_PREPARED("dispatchPrepared"),
+	PROCESS_ORDER("processOrder"),
+	PREPARE_STAGE("processOrder.prepare"),
+	DELIVER_STAGE("processOrder.deliver"),
+	COMPLETE_STAGE("processOrder.complete");
+
+	private final String label;
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	Operation(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Records one call of this operation that started at the given time.
+	 *
+	 * @param startNanos the {@link System#nanoTime()} when the operation started
+	 * @return the {@link System#nanoTime()} when the operation was recorded
+	 */
+	public long record(long startNanos) {
+		long now = System.nanoTime();
+		histogram.record(now - startNanos);
+		return now;
+	}
+
+	/**
+	 * Returns the name of the operation as shown in reports and JMX.
+	 *
+	 * @return the operation's label
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Returns the latency histogram of this operation.
+	 *
+	 * @return the histogram
+	 */
+	public LatencyHistogram getHistogram() {
+		return histogram;
+	}
+}
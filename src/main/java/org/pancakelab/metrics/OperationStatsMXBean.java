@@ -0,0 +1,21 @@
+package org.pancakelab.metrics;
+
+/**
+ * JMX view of one {@link Operation}'s call count and latencies, registered by {@link MetricsReporter}.
+ */
+public interface OperationStatsMXBean {
+
+	long getCount();
+
+	long getMeanMicros();
+
+	long getP50Micros();
+
+	long getP90Micros();
+
+	long getP99Micros();
+
+	long getMaxMicros();
+
+	void reset();
+}
@@ -82,4 +82,13 @@ public enum Ingredient {
 	public double getPrice() {
 		return price;
 	}
+
+	/**
+	 * Returns the bit that represents this ingredient in a recipe bitmask.
+	 *
+	 * @return {@code 1 << ordinal()}
+	 */
+	public int mask() {
+		return 1 << ordinal();
+	}
 }
\ No newline at end of file
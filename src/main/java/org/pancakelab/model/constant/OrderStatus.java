@@ -1,5 +1,40 @@
 package org.pancakelab.model.constant;
 
+/**
+ * The {@code OrderStatus} enum defines the lifecycle states of an order and the transitions
+ * allowed between them.
+ * <pre>
+ * CREATED ──► PREPARED ──► DELIVERED ──► COMPLETED
+ *    │            └─────────────────────► COMPLETED
+ *    ├──────────────────────────────────► COMPLETED
+ *    └──► CANCELLED
+ * </pre>
+ * COMPLETED and CANCELLED are final; an order can only be cancelled while it is CREATED.
+ */
 public enum OrderStatus {
-	COMPLETED, CREATED, PREPARED, DELIVERED, CANCELLED
+	COMPLETED, CREATED, PREPARED, DELIVERED, CANCELLED;
+
+	/**
+	 * Indicates whether an order in this status may move to the given status.
+	 *
+	 * @param next the status to move to
+	 * @return {@code true} if the transition is allowed
+	 */
+	public boolean canTransitionTo(OrderStatus next) {
+		return switch (this) {
+			case CREATED -> next == PREPARED || next == COMPLETED || next == CANCELLED;
+			case PREPARED -> next == DELIVERED || next == COMPLETED;
+			case DELIVERED -> next == COMPLETED;
+			case COMPLETED, CANCELLED -> false;
+		};
+	}
+
+	/**
+	 * Indicates whether the order no longer takes part in the preparation and delivery flow.
+	 *
+	 * @return {@code true} for CANCELLED, COMPLETED and DELIVERED
+	 */
+	public boolean isTerminal() {
+		return this == CANCELLED || this == COMPLETED || this == DELIVERED;
+	}
 }
@@ -0,0 +1,30 @@
+package org.pancakelab.model.order;
+
+import org.pancakelab.model.constant.OrderStatus;
+
+import java.util.*;
+
+/**
+ * Read-only record of an order that reached a terminal status and was moved out of the live services.
+ *
+ * @param orderId     the ID of the order
+ * @param building    the building the order was for
+ * @param room        the room the order was for
+ * @param status      the final status of the order
+ * @param finishedAt  when the order reached that status, in milliseconds since the epoch
+ * @param lineItems   the pancakes of the order when it was archived
+ */
+public record ArchivedOrder(UUID orderId, int building, int room, OrderStatus status, long finishedAt,
+							List<LineItem> lineItems) {
+
+	/**
+	 * Returns the total price of the archived pancakes.
+	 */
+	public double totalPrice() {
+		double total = 0;
+		for (LineItem item : lineItems) {
+			total += item.totalPrice();
+		}
+		return total;
+	}
+}
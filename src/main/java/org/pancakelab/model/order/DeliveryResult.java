@@ -0,0 +1,40 @@
+package org.pancakelab.model.order;
+
+import java.util.*;
+
+/**
+ * Outcome of delivering one order: the order, now DELIVERED, and the pancakes handed over with it.
+ *
+ * @param order the delivered order
+ * @param lines the pancakes of the order at the time of delivery
+ */
+public record DeliveryResult(Order order, OrderLines lines) {
+
+	/**
+	 * Returns the building the order was delivered to.
+	 */
+	public int building() {
+		return order.getBuilding();
+	}
+
+	/**
+	 * Returns the room the order was delivered to.
+	 */
+	public int room() {
+		return order.getRoom();
+	}
+
+	/**
+	 * Returns the number of delivered pancakes.
+	 */
+	public int pancakeCount() {
+		return lines.getPancakeCount();
+	}
+
+	/**
+	 * Returns the descriptions of the delivered pancakes, one per pancake.
+	 */
+	public List<String> pancakes() {
+		return lines.getDescriptions();
+	}
+}
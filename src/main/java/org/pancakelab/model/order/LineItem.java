@@ -0,0 +1,53 @@
+package org.pancakelab.model.order;
+
+import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+
+import java.util.*;
+
+/**
+ * A run of identical pancakes in an order: one recipe at one unit price, with a quantity.
+ *
+ * @param recipe    the recipe of the pancakes
+ * @param unitPrice the price of one pancake
+ * @param quantity  the number of pancakes, always positive
+ */
+public record LineItem(Recipe recipe, double unitPrice, int quantity) {
+
+	/**
+	 * @throws IllegalArgumentException if the recipe is null or the quantity is not positive
+	 */
+	public LineItem {
+		if (recipe == null || quantity <= 0) {
+			throw new IllegalArgumentException("Invalid line item: " + recipe + " x " + quantity);
+		}
+	}
+
+	/**
+	 * Returns whether pancakes of the given recipe and unit price belong to this line item.
+	 */
+	public boolean matches(Recipe recipe, double unitPrice) {
+		return this.recipe == recipe && Double.compare(this.unitPrice, unitPrice) == 0;
+	}
+
+	/**
+	 * Returns the total price of the line item.
+	 */
+	public double totalPrice() {
+		return unitPrice * quantity;
+	}
+
+	/**
+	 * Creates one pancake of this line item.
+	 *
+	 * @param orderId the ID of the order the pancake belongs to
+	 * @return a new pancake with the recipe and unit price of this line item
+	 */
+	public Pancake toPancake(UUID orderId) {
+		Pancake pancake = new RecipePancake(recipe);
+		pancake.setPrice(unitPrice);
+		pancake.setOrderId(orderId);
+		return pancake;
+	}
+}
@@ -3,13 +3,16 @@ package org.pancakelab.model.order;
 import org.pancakelab.model.constant.OrderStatus;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The {@code Order} class represents a customer's pancake order.
  * Each order is uniquely identified by a UUID and is associated with a specific building and room number.
  * The order also tracks its current status throughout the lifecycle (e.g., CREATED, COMPLETED, DELIVERED).
  * <p>
- * This class is immutable after creation, and uses the UUID to define equality between order instances.
+ * The delivery details are immutable after creation, and the UUID defines equality between order instances.
+ * The status is the single source of truth for the order's lifecycle; it only changes through atomic
+ * compare-and-set transitions that follow {@link OrderStatus#canTransitionTo(OrderStatus)}.
  * </p>
  *
  * Example usage:
@@ -32,20 +35,41 @@ public class Order {
 	private final int room;
 
 	/** Current status of the order (e.g., CREATED, COMPLETED, DELIVERED) */
-	private OrderStatus status;
+	private final AtomicReference<OrderStatus> status;
+
+	/** Wall-clock time in milliseconds of the order's creation or last status change */
+	private volatile long statusChangedAt;
 
 	/**
 	 * Constructs a new {@code Order} with the specified building and room number.
-	 * A unique UUID is automatically generated for the order, and the initial status is set to {@link OrderStatus#CREATED}.
+	 * A unique, time-ordered UUID is generated for the order by {@link OrderIdGenerator#timeOrdered()},
+	 * and the initial status is set to {@link OrderStatus#CREATED}.
 	 *
 	 * @param building the building number where the order is to be delivered
 	 * @param room the room number where the order is to be delivered
 	 */
 	public Order(int building, int room) {
-		this.id = UUID.randomUUID();
+		this(OrderIdGenerator.timeOrdered().nextId(), building, room);
+	}
+
+	/**
+	 * Constructs an {@code Order} with a known ID, for example when restoring an order from storage.
+	 * The initial status is set to {@link OrderStatus#CREATED}.
+	 *
+	 * @param id the unique identifier of the order
+	 * @param building the building number where the order is to be delivered
+	 * @param room the room number where the order is to be delivered
+	 * @throws IllegalArgumentException if the ID is null
+	 */
+	public Order(UUID id, int building, int room) {
+		if (id == null) {
+			throw new IllegalArgumentException("Order ID must not be null");
+		}
+		this.id = id;
 		this.building = building;
 		this.room = room;
-		this.status = OrderStatus.CREATED; // Default status is CREATED
+		this.status = new AtomicReference<>(OrderStatus.CREATED); // Default status is CREATED
+		this.statusChangedAt = System.currentTimeMillis();
 	}
 
 	/**
@@ -85,17 +109,71 @@ public class Order {
 	 * @return the current order status
 	 */
 	public OrderStatus getStatus() {
-		return status;
+		return status.get();
+	}
+
+	/**
+	 * Returns when the order was created or last changed status, for example to tell how long
+	 * it has been in a terminal status.
+	 *
+	 * @return the wall-clock time of the last status change, in milliseconds since the epoch
+	 */
+	public long getStatusChangedAt() {
+		return statusChangedAt;
 	}
 
 	/**
 	 * Sets the status of the order.
 	 * This method is used to change the order's status as it progresses through its lifecycle.
+	 * Setting the status the order is already in has no effect.
 	 *
 	 * @param status the new status to set for the order
+	 * @throws IllegalStateException if the current status cannot move to the given one
 	 */
 	public void setStatus(OrderStatus status) {
-		this.status = status;
+		if (getStatus() != status) {
+			transitionTo(status);
+		}
+	}
+
+	/**
+	 * Atomically moves the order from the expected status to the next one.
+	 *
+	 * @param expected the status the order must currently be in
+	 * @param next the status to move to
+	 * @return {@code true} if the transition happened; {@code false} if the order was not in the
+	 *         expected status or the transition is not allowed
+	 */
+	public boolean compareAndSetStatus(OrderStatus expected, OrderStatus next) {
+		if (expected.canTransitionTo(next) && status.compareAndSet(expected, next)) {
+			statusChangedAt = System.currentTimeMillis();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Atomically moves the order to the given status from whatever status it is currently in.
+	 * The transition is a compare-and-set, so exactly one of two conflicting transitions wins and the
+	 * other fails against the winner's status. {@link org.pancakelab.service.OrderService} still runs its
+	 * transitions while holding the order's monitor, so each status change and its journal record are
+	 * applied as one step.
+	 *
+	 * @param next the status to move to
+	 * @return the status the order was in before the transition
+	 * @throws IllegalStateException if the current status cannot move to the given one
+	 */
+	public OrderStatus transitionTo(OrderStatus next) {
+		while (true) {
+			OrderStatus current = status.get();
+			if (!current.canTransitionTo(next)) {
+				throw new IllegalStateException("Order " + id + " cannot move from " + current + " to " + next);
+			}
+			if (status.compareAndSet(current, next)) {
+				statusChangedAt = System.currentTimeMillis();
+				return current;
+			}
+		}
 	}
 
 	/**
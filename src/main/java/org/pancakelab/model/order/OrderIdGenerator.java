@@ -0,0 +1,44 @@
+package org.pancakelab.model.order;
+
+import java.util.*;
+
+/**
+ * Produces the unique IDs of new {@link Order}s.
+ *
+ * <p>IDs stay {@link UUID}s whichever generator is used, so callers of {@link Order#getId()} are not
+ * affected by the choice.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderService orderService = new OrderService(new OrderRepository(), OrderIdGenerator.random());
+ * </pre>
+ */
+@FunctionalInterface
+public interface OrderIdGenerator {
+
+	/**
+	 * Returns a new ID, different from every ID this generator returned before.
+	 *
+	 * @return the new order ID
+	 */
+	UUID nextId();
+
+	/**
+	 * Returns the default generator, which produces time-ordered IDs from per-thread state.
+	 *
+	 * @return the {@link TimeOrderedIdGenerator}
+	 */
+	static OrderIdGenerator timeOrdered() {
+		return TimeOrderedIdGenerator.INSTANCE;
+	}
+
+	/**
+	 * Returns a generator of random (version 4) UUIDs backed by {@link UUID#randomUUID()}.
+	 * Every call goes through a shared {@code SecureRandom}, which makes it slower under contention.
+	 *
+	 * @return the random generator
+	 */
+	static OrderIdGenerator random() {
+		return UUID::randomUUID;
+	}
+}
@@ -0,0 +1,186 @@
+package org.pancakelab.model.order;
+
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.util.*;
+
+/**
+ * Immutable pancake contents of an order, stored as run-length {@link LineItem}s.
+ *
+ * <p>Consecutive pancakes of the same recipe and unit price share one line item however many there are, so
+ * the line items keep the pancakes in the order they were added, and adding or removing pancakes costs
+ * O(line items). The pancake count, total price and per-ingredient counts are
+ * computed once per change, so reading them is O(1). Every change returns a new instance, which lets readers
+ * use an instance without locking while writers replace it, and its totals always match its line items.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderLines lines = OrderLines.EMPTY.add(recipe, recipe.getPrice(), 12);
+ * int count = lines.getPancakeCount();
+ * </pre>
+ */
+public final class OrderLines {
+
+	private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+	/** Contents of an order without pancakes */
+	public static final OrderLines EMPTY = new OrderLines(new LineItem[0], 0);
+
+	/** Runs of pancakes in the order they were added */
+	private final LineItem[] items;
+	private final int pancakeCount;
+	private final double totalPrice;
+	/** Number of pancakes containing each ingredient, indexed by ordinal */
+	private final int[] ingredientCounts;
+
+	private OrderLines(LineItem[] items, int pancakeCount) {
+		this.items = items;
+		this.pancakeCount = pancakeCount;
+		double total = 0;
+		int[] counts = new int[INGREDIENTS.length];
+		for (LineItem item : items) {
+			// Summed from the line items rather than adjusted, so repeated changes never accumulate rounding errors
+			total += item.totalPrice();
+			for (Ingredient ingredient : item.recipe().getIngredients()) {
+				counts[ingredient.ordinal()] += item.quantity();
+			}
+		}
+		this.totalPrice = total;
+		this.ingredientCounts = counts;
+	}
+
+	/**
+	 * Returns these contents plus {@code count} pancakes of the given recipe and unit price. They extend the
+	 * last line item if it has the same recipe and price, and start a new one otherwise.
+	 *
+	 * @param recipe    the recipe of the pancakes
+	 * @param unitPrice the price of one pancake
+	 * @param count     the number of pancakes to add
+	 * @return the new contents
+	 * @throws IllegalArgumentException if the recipe is null or the count is not positive
+	 */
+	public OrderLines add(Recipe recipe, double unitPrice, int count) {
+		if (count > Integer.MAX_VALUE - pancakeCount) {
+			throw new IllegalArgumentException("Too many pancakes in one order");
+		}
+		int last = items.length - 1;
+		if (last >= 0 && items[last].matches(recipe, unitPrice)) {
+			LineItem[] updated = items.clone();
+			updated[last] = new LineItem(recipe, unitPrice, items[last].quantity() + count);
+			return new OrderLines(updated, pancakeCount + count);
+		}
+		LineItem[] updated = Arrays.copyOf(items, items.length + 1);
+		updated[items.length] = new LineItem(recipe, unitPrice, count);
+		return new OrderLines(updated, pancakeCount + count);
+	}
+
+	/**
+	 * Returns these contents without their first {@code count} pancakes, or without all of them if there
+	 * are fewer.
+	 *
+	 * @param count the number of pancakes to remove
+	 * @return the new contents
+	 */
+	public OrderLines removeFirst(int count) {
+		if (count >= pancakeCount) {
+			return EMPTY;
+		}
+		int dropped = 0;
+		int left = count;
+		while (left >= items[dropped].quantity()) {
+			left -= items[dropped].quantity();
+			dropped++;
+		}
+		LineItem[] updated = Arrays.copyOfRange(items, dropped, items.length);
+		if (left > 0) {
+			LineItem first = updated[0];
+			updated[0] = new LineItem(first.recipe(), first.unitPrice(), first.quantity() - left);
+		}
+		return new OrderLines(updated, pancakeCount - count);
+	}
+
+	/**
+	 * Returns the line items, one per run of pancakes of the same recipe and price, in the order they were added.
+	 *
+	 * @return an immutable list of line items
+	 */
+	public List<LineItem> getItems() {
+		return List.of(items);
+	}
+
+	/**
+	 * Returns the descriptions of the pancakes, one per pancake, in the order they were added.
+	 *
+	 * @return a read-only view of the descriptions, resolved from the line items on each access
+	 */
+	public List<String> getDescriptions() {
+		return new AbstractList<>() {
+			@Override
+			public String get(int index) {
+				return itemOfPancake(index).recipe().getDescription();
+			}
+
+			@Override
+			public int size() {
+				return pancakeCount;
+			}
+		};
+	}
+
+	/**
+	 * Returns the line item holding the pancake at the given index, counting pancakes across line items.
+	 *
+	 * @param index the index of the pancake
+	 * @return the line item of that pancake
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public LineItem itemOfPancake(int index) {
+		Objects.checkIndex(index, pancakeCount);
+		int remaining = index;
+		for (LineItem item : items) {
+			if (remaining < item.quantity()) {
+				return item;
+			}
+			remaining -= item.quantity();
+		}
+		throw new IllegalStateException("Line items do not add up to " + pancakeCount);
+	}
+
+	/**
+	 * Returns the total number of pancakes.
+	 *
+	 * @return the pancake count
+	 */
+	public int getPancakeCount() {
+		return pancakeCount;
+	}
+
+	/**
+	 * Returns the total price of all pancakes.
+	 *
+	 * @return the sum of the line item totals
+	 */
+	public double getTotalPrice() {
+		return totalPrice;
+	}
+
+	/**
+	 * Returns the number of pancakes containing the given ingredient.
+	 *
+	 * @param ingredient the ingredient
+	 * @return the number of pancakes with that ingredient
+	 */
+	public int getIngredientCount(Ingredient ingredient) {
+		return ingredientCounts[ingredient.ordinal()];
+	}
+
+	/**
+	 * Indicates whether there are no pancakes.
+	 *
+	 * @return {@code true} if the order has no pancakes
+	 */
+	public boolean isEmpty() {
+		return pancakeCount == 0;
+	}
+}
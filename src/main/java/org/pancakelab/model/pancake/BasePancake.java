@@ -51,7 +51,17 @@ public class BasePancake implements Pancake {
 	 */
 	@Override
 	public List<Ingredient> ingredients() {
-		return new ArrayList<>();
+		return Recipe.EMPTY.getIngredients();
+	}
+
+	/**
+	 * Returns the recipe of the base pancake, which has no ingredients.
+	 *
+	 * @return {@link Recipe#EMPTY}
+	 */
+	@Override
+	public Recipe getRecipe() {
+		return Recipe.EMPTY;
 	}
 
 	/**
@@ -72,7 +82,7 @@ public class BasePancake implements Pancake {
 	 */
 	@Override
 	public String getDescription() {
-		return "";
+		return Recipe.EMPTY.getDescription();
 	}
 
 	/**
@@ -94,4 +104,17 @@ public class BasePancake implements Pancake {
 	public void setPrice(double price) {
 		this.price = price;
 	}
+
+	/**
+	 * Returns a new base pancake with the same price and order ID.
+	 *
+	 * @return a copy of this pancake
+	 */
+	@Override
+	public Pancake copy() {
+		BasePancake copy = new BasePancake();
+		copy.setOrderId(orderId);
+		copy.setPrice(price);
+		return copy;
+	}
 }
\ No newline at end of file
@@ -2,8 +2,6 @@ package org.pancakelab.model.pancake;
 
 import org.pancakelab.model.constant.Ingredient;
 
-import java.util.*;
-
 /**
  * Concrete decorator class that adds Dark Chocolate as a topping to a {@link Pancake}.
  *
@@ -21,30 +19,16 @@ public class DarkChocolate extends PancakeDecorator {
 	 * @param pancake the pancake to decorate
 	 */
 	public DarkChocolate(Pancake pancake) {
-		super(pancake);
-	}
-
-	/**
-	 * Returns the updated description including dark chocolate.
-	 *
-	 * @return description with dark chocolate added
-	 */
-	@Override
-	public String getDescription() {
-		return pancake.getDescription() + " " + Ingredient.DARK_CHOCOLATE.getName();
+		super(pancake, Ingredient.DARK_CHOCOLATE);
 	}
 
 	/**
-	 * Returns a list of ingredients including only dark chocolate.
-	 *
-	 * <p><b>Note:</b> If you want to include existing ingredients from the base pancake,
-	 * you should combine them with this one using:
-	 * {@code List.copyOf(pancake.ingredients()).add(Ingredient.DARK_CHOCOLATE)}</p>
+	 * Returns a new {@code DarkChocolate} decorator wrapping a copy of the wrapped pancake.
 	 *
-	 * @return list containing dark chocolate as the sole ingredient
+	 * @return a copy of this pancake with dark chocolate
 	 */
 	@Override
-	public List<Ingredient> ingredients() {
-		return List.of(Ingredient.DARK_CHOCOLATE);
+	public Pancake copy() {
+		return new DarkChocolate(pancake.copy());
 	}
 }
\ No newline at end of file
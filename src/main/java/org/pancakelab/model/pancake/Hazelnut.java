@@ -2,8 +2,6 @@ package org.pancakelab.model.pancake;
 
 import org.pancakelab.model.constant.Ingredient;
 
-import java.util.*;
-
 /**
  * Concrete decorator that adds Hazelnut topping to a {@link Pancake}.
  *
@@ -21,29 +19,16 @@ public class Hazelnut extends PancakeDecorator {
 	 * @param pancake the pancake to decorate with hazelnut
 	 */
 	public Hazelnut(Pancake pancake) {
-		super(pancake);
-	}
-
-	/**
-	 * Returns the description of the pancake, including "Hazelnut".
-	 *
-	 * @return updated pancake description
-	 */
-	@Override
-	public String getDescription() {
-		return pancake.getDescription() + " " + Ingredient.HAZELNUT.getName();
+		super(pancake, Ingredient.HAZELNUT);
 	}
 
 	/**
-	 * Returns a list of ingredients for this decorator.
-	 *
-	 * <p>Currently returns only the hazelnut ingredient. To accumulate
-	 * previous ingredients, you can extend this logic accordingly.</p>
+	 * Returns a new {@code Hazelnut} decorator wrapping a copy of the wrapped pancake.
 	 *
-	 * @return list containing hazelnut as the only ingredient
+	 * @return a copy of this pancake with hazelnut
 	 */
 	@Override
-	public List<Ingredient> ingredients() {
-		return List.of(Ingredient.HAZELNUT);
+	public Pancake copy() {
+		return new Hazelnut(pancake.copy());
 	}
 }
\ No newline at end of file
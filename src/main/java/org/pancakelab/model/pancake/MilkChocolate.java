@@ -2,8 +2,6 @@ package org.pancakelab.model.pancake;
 
 import org.pancakelab.model.constant.Ingredient;
 
-import java.util.*;
-
 /**
  * The {@code MilkChocolate} class is a concrete decorator in the Pancake Decorator design pattern.
  * It adds milk chocolate as an ingredient to a base {@link Pancake}.
@@ -22,28 +20,16 @@ public class MilkChocolate extends PancakeDecorator {
 	 * @param pancake the base {@link Pancake} to decorate with milk chocolate
 	 */
 	public MilkChocolate(Pancake pancake) {
-		super(pancake);
-	}
-
-	/**
-	 * Returns the description of the pancake including the milk chocolate.
-	 *
-	 * @return the decorated pancake description
-	 */
-	@Override
-	public String getDescription() {
-		return pancake.getDescription() + " " + Ingredient.MILK_CHOCOLATE.getName();
+		super(pancake, Ingredient.MILK_CHOCOLATE);
 	}
 
 	/**
-	 * Returns a list containing only the milk chocolate ingredient.
-	 * Note: This only includes the ingredient added by this decorator.
-	 * To get a full ingredient list, delegate calls should be chained through the base pancake.
+	 * Returns a new {@code MilkChocolate} decorator wrapping a copy of the wrapped pancake.
 	 *
-	 * @return a list containing {@link Ingredient#MILK_CHOCOLATE}
+	 * @return a copy of this pancake with milk chocolate
 	 */
 	@Override
-	public List<Ingredient> ingredients() {
-		return List.of(Ingredient.MILK_CHOCOLATE);
+	public Pancake copy() {
+		return new MilkChocolate(pancake.copy());
 	}
 }
\ No newline at end of file
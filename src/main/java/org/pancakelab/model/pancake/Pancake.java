@@ -62,4 +62,19 @@ public interface Pancake {
 	 * @return a list of {@link Ingredient} items
 	 */
 	List<Ingredient> ingredients();
+
+	/**
+	 * Returns the shared recipe describing this pancake's ingredients.
+	 *
+	 * @return the {@link Recipe} of the pancake
+	 */
+	Recipe getRecipe();
+
+	/**
+	 * Returns a new pancake with the same ingredients, price and order ID.
+	 * Changes made to the copy do not affect this pancake.
+	 *
+	 * @return an independent copy of this pancake
+	 */
+	Pancake copy();
 }
\ No newline at end of file
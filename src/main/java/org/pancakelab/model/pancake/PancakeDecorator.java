@@ -11,7 +11,9 @@ import java.util.*;
  * decorators (e.g., {@code ChocolatePancake}, {@code WhippedCreamPancake}).
  * It allows additional ingredients or behavior to be added to a basic pancake dynamically.</p>
  *
- * <p>It delegates all method calls to the wrapped Pancake instance.</p>
+ * <p>It delegates price and order handling to the wrapped Pancake instance. The description and
+ * ingredients come from the decorator's {@link Recipe}, which is resolved once at construction,
+ * so reading them never walks the decorator chain or builds strings.</p>
  */
 public class PancakeDecorator implements Pancake {
 
@@ -20,6 +22,11 @@ public class PancakeDecorator implements Pancake {
 	 */
 	protected final Pancake pancake;
 
+	/**
+	 * The recipe of the decorated pancake, including the ingredient added by this decorator.
+	 */
+	protected final Recipe recipe;
+
 	/**
 	 * Constructs a decorator with the specified Pancake to wrap.
 	 *
@@ -27,16 +34,38 @@ public class PancakeDecorator implements Pancake {
 	 */
 	public PancakeDecorator(Pancake pancake) {
 		this.pancake = pancake;
+		this.recipe = pancake.getRecipe();
 	}
 
 	/**
-	 * Returns the list of ingredients of the wrapped pancake.
+	 * Constructs a decorator that adds the given ingredient to the specified Pancake.
+	 *
+	 * @param pancake the pancake to decorate
+	 * @param ingredient the ingredient added by this decorator
+	 */
+	protected PancakeDecorator(Pancake pancake, Ingredient ingredient) {
+		this.pancake = pancake;
+		this.recipe = pancake.getRecipe().with(ingredient);
+	}
+
+	/**
+	 * Returns the full list of ingredients of the decorated pancake.
 	 *
 	 * @return list of ingredients
 	 */
 	@Override
 	public List<Ingredient> ingredients() {
-		return pancake.ingredients();
+		return recipe.getIngredients();
+	}
+
+	/**
+	 * Returns the recipe of the decorated pancake.
+	 *
+	 * @return the recipe
+	 */
+	@Override
+	public Recipe getRecipe() {
+		return recipe;
 	}
 
 	/**
@@ -50,13 +79,13 @@ public class PancakeDecorator implements Pancake {
 	}
 
 	/**
-	 * Returns the description of the wrapped pancake.
+	 * Returns the description of the decorated pancake.
 	 *
 	 * @return pancake description
 	 */
 	@Override
 	public String getDescription() {
-		return pancake.getDescription();
+		return recipe.getDescription();
 	}
 
 	/**
@@ -98,4 +127,15 @@ public class PancakeDecorator implements Pancake {
 	public void setOrderId(UUID orderId) {
 		pancake.setOrderId(orderId);
 	}
+
+	/**
+	 * Returns a decorator wrapping a copy of the wrapped pancake.
+	 * Concrete decorators override this to return an instance of their own type.
+	 *
+	 * @return a copy of this pancake
+	 */
+	@Override
+	public Pancake copy() {
+		return new PancakeDecorator(pancake.copy());
+	}
 }
\ No newline at end of file
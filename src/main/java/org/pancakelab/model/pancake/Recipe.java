@@ -0,0 +1,147 @@
+package org.pancakelab.model.pancake;
+
+import org.pancakelab.model.constant.Ingredient;
+
+import java.util.*;
+
+/**
+ * Immutable combination of {@link Ingredient}s, encoded as a bitmask of ingredient ordinals.
+ *
+ * <p>There is exactly one {@code Recipe} instance per distinct ingredient combination. All of them are
+ * created up front, together with their description, price and ingredient list, so looking a recipe up
+ * or reading its properties never allocates.</p>
+ *
+ * <p>A recipe is a set: adding an ingredient it already contains returns the same recipe, and the
+ * description and ingredient list always follow the declaration order of {@link Ingredient}.</p>
+ *
+ * Example usage:
+ * <pre>
+ * Recipe recipe = Recipe.EMPTY.with(Ingredient.HAZELNUT).with(Ingredient.WHIPPED_CREAM);
+ * String description = recipe.getDescription(); // "Whipped Cream Hazelnut"
+ * </pre>
+ */
+public final class Recipe {
+
+	/** Every recipe, indexed by its bitmask */
+	private static final Recipe[] RECIPES = new Recipe[1 << Ingredient.values().length];
+
+	static {
+		for (int mask = 0; mask < RECIPES.length; mask++) {
+			RECIPES[mask] = new Recipe(mask);
+		}
+	}
+
+	/** The recipe of a plain pancake without ingredients */
+	public static final Recipe EMPTY = RECIPES[0];
+
+	private final int mask;
+	private final String description;
+	private final double price;
+	private final List<Ingredient> ingredients;
+
+	private Recipe(int mask) {
+		List<Ingredient> selected = new ArrayList<>();
+		StringJoiner description = new StringJoiner(" ");
+		double price = 0;
+		for (Ingredient ingredient : Ingredient.values()) {
+			if ((mask & ingredient.mask()) != 0) {
+				selected.add(ingredient);
+				description.add(ingredient.getName());
+				price += ingredient.getPrice();
+			}
+		}
+		this.mask = mask;
+		this.description = description.toString();
+		this.price = price;
+		this.ingredients = List.copyOf(selected);
+	}
+
+	/**
+	 * Returns the recipe for the given ingredient bitmask.
+	 *
+	 * @param mask a combination of {@link Ingredient#mask()} values
+	 * @return the shared recipe instance
+	 * @throws IllegalArgumentException if the mask contains unknown ingredient bits
+	 */
+	public static Recipe of(int mask) {
+		if (mask < 0 || mask >= RECIPES.length) {
+			throw new IllegalArgumentException("Invalid recipe mask: " + mask);
+		}
+		return RECIPES[mask];
+	}
+
+	/**
+	 * Returns the recipe containing the given ingredients.
+	 *
+	 * @param ingredients the ingredients of the recipe
+	 * @return the shared recipe instance
+	 */
+	public static Recipe of(Ingredient... ingredients) {
+		int mask = 0;
+		for (Ingredient ingredient : ingredients) {
+			mask |= ingredient.mask();
+		}
+		return RECIPES[mask];
+	}
+
+	/**
+	 * Returns the recipe containing this recipe's ingredients plus the given one.
+	 *
+	 * @param ingredient the ingredient to add
+	 * @return the shared recipe instance
+	 */
+	public Recipe with(Ingredient ingredient) {
+		return RECIPES[mask | ingredient.mask()];
+	}
+
+	/**
+	 * Indicates whether the recipe contains the given ingredient.
+	 *
+	 * @param ingredient the ingredient to check
+	 * @return {@code true} if the ingredient is part of the recipe
+	 */
+	public boolean contains(Ingredient ingredient) {
+		return (mask & ingredient.mask()) != 0;
+	}
+
+	/**
+	 * Returns the ingredient bitmask of the recipe.
+	 *
+	 * @return the bitmask
+	 */
+	public int getMask() {
+		return mask;
+	}
+
+	/**
+	 * Returns the ingredient names of the recipe, separated by spaces.
+	 *
+	 * @return the cached description
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Returns the summed price of the recipe's ingredients.
+	 *
+	 * @return the recipe price
+	 */
+	public double getPrice() {
+		return price;
+	}
+
+	/**
+	 * Returns the ingredients of the recipe.
+	 *
+	 * @return an immutable list of ingredients
+	 */
+	public List<Ingredient> getIngredients() {
+		return ingredients;
+	}
+
+	@Override
+	public String toString() {
+		return description.isEmpty() ? "Plain" : description;
+	}
+}
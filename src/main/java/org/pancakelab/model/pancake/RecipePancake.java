@@ -0,0 +1,131 @@
+package org.pancakelab.model.pancake;
+
+import org.pancakelab.model.constant.Ingredient;
+
+import java.util.*;
+
+/**
+ * A pancake made from a shared {@link Recipe}.
+ *
+ * <p>This is a thin wrapper that holds only the per-pancake state (order ID and price) and delegates
+ * everything about the ingredients to the canonical recipe instance. Unlike a decorator chain, it takes
+ * a single allocation regardless of how many ingredients the pancake has.</p>
+ */
+public class RecipePancake implements Pancake {
+
+	/** The shared recipe of the pancake */
+	private final Recipe recipe;
+
+	/** The ID of the order this pancake belongs to */
+	private UUID orderId;
+
+	/** The price of the pancake */
+	private double price;
+
+	/**
+	 * Constructs a pancake from the given recipe, priced at the recipe price.
+	 *
+	 * @param recipe the recipe of the pancake
+	 * @throws IllegalArgumentException if the recipe is null
+	 */
+	public RecipePancake(Recipe recipe) {
+		if (recipe == null) {
+			throw new IllegalArgumentException("Recipe must not be null");
+		}
+		this.recipe = recipe;
+		this.price = recipe.getPrice();
+	}
+
+	/**
+	 * Returns the name of the pancake.
+	 *
+	 * @return "Base Pancake", matching decorated pancakes
+	 */
+	@Override
+	public String getName() {
+		return "Base Pancake";
+	}
+
+	/**
+	 * Returns the cached description of the recipe.
+	 *
+	 * @return the pancake description
+	 */
+	@Override
+	public String getDescription() {
+		return recipe.getDescription();
+	}
+
+	/**
+	 * Returns the price of the pancake.
+	 *
+	 * @return the price value
+	 */
+	@Override
+	public double getPrice() {
+		return price;
+	}
+
+	/**
+	 * Sets the price of the pancake.
+	 *
+	 * @param price the price to be set
+	 */
+	@Override
+	public void setPrice(double price) {
+		this.price = price;
+	}
+
+	/**
+	 * Returns the order ID associated with this pancake.
+	 *
+	 * @return the order UUID
+	 */
+	@Override
+	public UUID getOrderId() {
+		return orderId;
+	}
+
+	/**
+	 * Sets the order ID for this pancake.
+	 *
+	 * @param orderId the order UUID to associate
+	 */
+	@Override
+	public void setOrderId(UUID orderId) {
+		this.orderId = orderId;
+	}
+
+	/**
+	 * Returns the ingredients of the recipe.
+	 *
+	 * @return an immutable list of ingredients
+	 */
+	@Override
+	public List<Ingredient> ingredients() {
+		return recipe.getIngredients();
+	}
+
+	/**
+	 * Returns the shared recipe of the pancake.
+	 *
+	 * @return the recipe
+	 */
+	@Override
+	public Recipe getRecipe() {
+		return recipe;
+	}
+
+	/**
+	 * Returns a new pancake sharing the same recipe, with the same price and order ID.
+	 *
+	 * @return a copy of this pancake
+	 */
+	@Override
+	public Pancake copy() {
+		RecipePancake copy = new RecipePancake(recipe);
+		copy.orderId = orderId;
+		copy.price = price;
+		return copy;
+	}
+}
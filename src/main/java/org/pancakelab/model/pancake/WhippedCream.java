@@ -2,8 +2,6 @@ package org.pancakelab.model.pancake;
 
 import org.pancakelab.model.constant.Ingredient;
 
-import java.util.*;
-
 /**
  * The {@code WhippedCream} class is a concrete decorator in the Pancake Decorator design pattern.
  * It adds whipped cream as an ingredient to a base {@link Pancake}.
@@ -28,28 +26,16 @@ public class WhippedCream extends PancakeDecorator {
 	 * @param pancake the base {@link Pancake} to decorate with whipped cream
 	 */
 	public WhippedCream(Pancake pancake) {
-		super(pancake);
-	}
-
-	/**
-	 * Returns the description of the pancake including the whipped cream.
-	 *
-	 * @return the decorated pancake description
-	 */
-	@Override
-	public String getDescription() {
-		return pancake.getDescription() + " " + Ingredient.WHIPPED_CREAM.getName();
+		super(pancake, Ingredient.WHIPPED_CREAM);
 	}
 
 	/**
-	 * Returns a list containing only the whipped cream ingredient.
-	 * Note: This list includes only the ingredient added by this decorator.
-	 * For the full ingredient list, you should combine it with the base pancake's ingredients.
+	 * Returns a new {@code WhippedCream} decorator wrapping a copy of the wrapped pancake.
 	 *
-	 * @return a list containing {@link Ingredient#WHIPPED_CREAM}
+	 * @return a copy of this pancake with whipped cream
 	 */
 	@Override
-	public List<Ingredient> ingredients() {
-		return List.of(Ingredient.WHIPPED_CREAM);
+	public Pancake copy() {
+		return new WhippedCream(pancake.copy());
 	}
 }
\ No newline at end of file
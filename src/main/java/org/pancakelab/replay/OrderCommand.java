@@ -0,0 +1,161 @@
+package org.pancakelab.replay;
+
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Recipe;
+
+/**
+ * One line of an order replay file, parsed by hand in a single pass over its characters.
+ *
+ * <p>The format has one command per line, with fields separated by spaces or tabs. An order is named by a
+ * reference number chosen by the file, and ingredients are the menu numbers shown by the interactive mode:</p>
+ * <pre>
+ * # comment
+ * create &lt;ref&gt; &lt;building&gt; &lt;room&gt;
+ * add &lt;ref&gt; &lt;ingredients&gt; &lt;quantity&gt;   ingredients are comma-separated menu numbers, or - for a plain pancake
+ * confirm &lt;ref&gt;
+ * cancel &lt;ref&gt;
+ * </pre>
+ * Malformed lines are reported by {@link #parse(String)} returning {@code null}; no exception is thrown
+ * or caught while parsing.
+ *
+ * @param type     the command
+ * @param ref      the reference number of the order in the file
+ * @param building the building, for {@link Type#CREATE}
+ * @param room     the room, for {@link Type#CREATE}
+ * @param recipe   the recipe of the pancakes, for {@link Type#ADD}
+ * @param quantity the number of pancakes, for {@link Type#ADD}
+ */
+public record OrderCommand(Type type, int ref, int building, int room, Recipe recipe, int quantity) {
+
+	/**
+	 * The commands of the replay format.
+	 */
+	public enum Type {
+		CREATE, ADD, CONFIRM, CANCEL
+	}
+
+	private static final Ingredient[] MENU = Ingredient.values();
+
+	/**
+	 * Indicates whether a line holds no command: it is empty, blank or a comment.
+	 *
+	 * @param line the line
+	 * @return {@code true} if the line should be skipped
+	 */
+	public static boolean isBlankOrComment(String line) {
+		int start = skipSpaces(line, 0);
+		return start == line.length() || line.charAt(start) == '#';
+	}
+
+	/**
+	 * Parses a command line.
+	 *
+	 * @param line the line, which is not blank or a comment
+	 * @return the command, or {@code null} if the line is malformed
+	 */
+	public static OrderCommand parse(String line) {
+		int start = skipSpaces(line, 0);
+		int end = fieldEnd(line, start);
+		Type type = typeOf(line, start, end);
+		if (type == null) {
+			return null;
+		}
+		int[] fields = new int[3];
+		int fieldCount = type == Type.CREATE || type == Type.ADD ? 3 : 1;
+		Recipe recipe = null;
+		for (int i = 0; i < fieldCount; i++) {
+			start = skipSpaces(line, end);
+			end = fieldEnd(line, start);
+			if (start == end) {
+				return null;
+			}
+			if (type == Type.ADD && i == 1) {
+				recipe = recipeOf(line, start, end);
+				if (recipe == null) {
+					return null;
+				}
+			} else if ((fields[i] = number(line, start, end)) < 0) {
+				return null;
+			}
+		}
+		if (skipSpaces(line, end) != line.length()) {
+			return null;
+		}
+		return switch (type) {
+			case CREATE -> new OrderCommand(type, fields[0], fields[1], fields[2], null, 0);
+			case ADD -> fields[2] == 0 ? null : new OrderCommand(type, fields[0], 0, 0, recipe, fields[2]);
+			default -> new OrderCommand(type, fields[0], 0, 0, null, 0);
+		};
+	}
+
+	private static Type typeOf(String line, int start, int end) {
+		if (line.startsWith("create", start) && end - start == 6) {
+			return Type.CREATE;
+		} else if (line.startsWith("add", start) && end - start == 3) {
+			return Type.ADD;
+		} else if (line.startsWith("confirm", start) && end - start == 7) {
+			return Type.CONFIRM;
+		} else if (line.startsWith("cancel", start) && end - start == 6) {
+			return Type.CANCEL;
+		}
+		return null;
+	}
+
+	/**
+	 * Reads a recipe written as comma-separated menu numbers, or {@code -} for a plain pancake.
+	 */
+	private static Recipe recipeOf(String line, int start, int end) {
+		if (end - start == 1 && line.charAt(start) == '-') {
+			return Recipe.EMPTY;
+		}
+		int mask = 0;
+		int itemStart = start;
+		for (int i = start; i <= end; i++) {
+			if (i == end || line.charAt(i) == ',') {
+				int item = number(line, itemStart, i);
+				if (item < 1 || item > MENU.length) {
+					return null;
+				}
+				mask |= MENU[item - 1].mask();
+				itemStart = i + 1;
+			}
+		}
+		return Recipe.of(mask);
+	}
+
+	/**
+	 * Reads a non-negative decimal number of at most nine digits.
+	 *
+	 * @return the number, or -1 if the characters are not one
+	 */
+	private static int number(String line, int start, int end) {
+		if (start == end || end - start > 9) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			char c = line.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static int skipSpaces(String line, int from) {
+		int i = from;
+		while (i < line.length() && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int fieldEnd(String line, int from) {
+		int i = from;
+		while (i < line.length() && line.charAt(i) != ' ' && line.charAt(i) != '\t') {
+			i++;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,228 @@
+package org.pancakelab.replay;
+
+import org.pancakelab.metrics.LatencyHistogram;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a stream of {@link OrderCommand} lines through the services without any interaction, for bulk
+ * ingestion and capacity tests.
+ *
+ * <p>Lines are read and parsed in batches. Each batch is applied to the services in one go, and its
+ * confirmed orders are handed to the {@link OrderPipeline} together; the next batch is read while they are
+ * processed, and the replay waits for a batch's orders before starting the one after, so at most two batches
+ * are in flight. Commands the services reject, such as adding pancakes to a confirmed order, are counted and
+ * skipped like malformed lines.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderReplay.Report report = new OrderReplay(orderService, pancakeService, pipeline, 1024).run(reader);
+ * System.out.println(report.format());
+ * </pre>
+ */
+public class OrderReplay {
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final OrderPipeline pipeline;
+	private final int batchSize;
+
+	/** Orders of the replay by reference number, until they are confirmed or cancelled */
+	private final Map<Integer, Order> ordersByRef = new HashMap<>();
+	/** When each open order was created, by reference number */
+	private final Map<Integer, Long> createdAt = new HashMap<>();
+
+	/** Time from the create command to completion or cancellation, per order */
+	private final LatencyHistogram orderLatency = new LatencyHistogram();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private long commands;
+	private long rejected;
+	private long created;
+	private long cancelled;
+
+	/**
+	 * Summary of a replay.
+	 *
+	 * @param commands     the number of command lines read
+	 * @param rejected     the lines that were malformed or rejected by the services
+	 * @param created      the orders created
+	 * @param completed    the orders confirmed and processed to completion
+	 * @param cancelled    the orders cancelled
+	 * @param failed       the confirmed orders whose processing failed
+	 * @param elapsedNanos the duration of the replay
+	 * @param latency      the time from each order's creation to its completion or cancellation
+	 */
+	public record Report(long commands, long rejected, long created, long completed, long cancelled, long failed,
+						 long elapsedNanos, LatencyHistogram.Snapshot latency) {
+
+		/**
+		 * Returns the finished orders, completed or cancelled, per second of replay.
+		 */
+		public double ordersPerSecond() {
+			return elapsedNanos == 0 ? 0 : (completed + cancelled) * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Formats the report as a few lines of text.
+		 */
+		public String format() {
+			return String.format("Replayed %d commands in %.3f s (%d rejected)%n"
+							+ "Orders: %d created, %d completed, %d cancelled, %d failed, %.0f orders/s%n"
+							+ "Order latency: mean=%dus p50=%dus p90=%dus p99=%dus max=%dus",
+					commands, elapsedNanos / 1e9, rejected, created, completed, cancelled, failed, ordersPerSecond(),
+					micros(latency.mean()), micros(latency.p50()), micros(latency.p90()), micros(latency.p99()),
+					micros(latency.maxNanos()));
+		}
+
+		private static long micros(long nanos) {
+			return TimeUnit.NANOSECONDS.toMicros(nanos);
+		}
+	}
+
+	/**
+	 * Constructs a replay into the given services.
+	 *
+	 * @param orderService   the service receiving the orders
+	 * @param pancakeService the service receiving the pancakes
+	 * @param pipeline       processes the confirmed orders
+	 * @param batchSize      the number of lines read and applied together
+	 * @throws IllegalArgumentException if an argument is null or the batch size is not positive
+	 */
+	public OrderReplay(OrderService orderService, PancakeService pancakeService, OrderPipeline pipeline, int batchSize) {
+		if (orderService == null || pancakeService == null || pipeline == null || batchSize <= 0) {
+			throw new IllegalArgumentException("Invalid replay configuration");
+		}
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.pipeline = pipeline;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Replays every line of the reader and waits until the confirmed orders are processed.
+	 *
+	 * @param in the command lines
+	 * @return the summary of the replay
+	 * @throws IOException if reading fails
+	 */
+	public Report run(BufferedReader in) throws IOException {
+		long start = System.nanoTime();
+		List<OrderCommand> batch = new ArrayList<>(batchSize);
+		List<CompletableFuture<Order>> previous = List.of();
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (OrderCommand.isBlankOrComment(line)) {
+				continue;
+			}
+			commands++;
+			OrderCommand command = OrderCommand.parse(line);
+			if (command == null) {
+				rejected++;
+				continue;
+			}
+			batch.add(command);
+			if (batch.size() == batchSize) {
+				previous = apply(batch, previous);
+				batch.clear();
+			}
+		}
+		previous = apply(batch, previous);
+		await(previous);
+		return new Report(commands, rejected, created, completed.sum(), cancelled, failed.sum(),
+				System.nanoTime() - start, orderLatency.snapshot());
+	}
+
+	/**
+	 * Applies a batch, submits its confirmed orders, and then waits for the orders of the batch before.
+	 *
+	 * @return the futures of the orders submitted for this batch
+	 */
+	private List<CompletableFuture<Order>> apply(List<OrderCommand> batch, List<CompletableFuture<Order>> previous) {
+		List<UUID> confirmed = new ArrayList<>();
+		List<Long> confirmedCreatedAt = new ArrayList<>();
+		for (OrderCommand command : batch) {
+			if (!apply(command, confirmed, confirmedCreatedAt)) {
+				rejected++;
+			}
+		}
+		List<CompletableFuture<Order>> futures = new ArrayList<>(pipeline.submitAll(confirmed));
+		for (int i = 0; i < futures.size(); i++) {
+			long orderCreatedAt = confirmedCreatedAt.get(i);
+			// Waiting on the dependent future makes sure the counts are updated before the wait is over
+			futures.set(i, futures.get(i).whenComplete((order, failure) -> {
+				if (failure == null) {
+					orderLatency.record(System.nanoTime() - orderCreatedAt);
+					completed.increment();
+				} else {
+					failed.increment();
+				}
+			}));
+		}
+		await(previous);
+		return futures;
+	}
+
+	private boolean apply(OrderCommand command, List<UUID> confirmed, List<Long> confirmedCreatedAt) {
+		int ref = command.ref();
+		if (command.type() == OrderCommand.Type.CREATE) {
+			if (ordersByRef.containsKey(ref)) {
+				return false;
+			}
+			ordersByRef.put(ref, orderService.createOrder(command.building(), command.room()));
+			createdAt.put(ref, System.nanoTime());
+			created++;
+			return true;
+		}
+		Order order = ordersByRef.get(ref);
+		if (order == null) {
+			return false;
+		}
+		try {
+			switch (command.type()) {
+				case ADD -> {
+					Pancake pancake = new RecipePancake(command.recipe());
+					pancakeService.addPancakes(order, pancake, command.quantity());
+				}
+				case CONFIRM -> {
+					ordersByRef.remove(ref);
+					confirmed.add(order.getId());
+					confirmedCreatedAt.add(createdAt.remove(ref));
+				}
+				case CANCEL -> {
+					orderService.cancelOrder(order.getId(), pancakeService.countPancakes(order.getId()));
+					ordersByRef.remove(ref);
+					orderLatency.record(System.nanoTime() - createdAt.remove(ref));
+					cancelled++;
+				}
+				default -> {
+					return false;
+				}
+			}
+			return true;
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			// Rejected by the services, for example an order the deadlines already cancelled
+			return false;
+		}
+	}
+
+	private static void await(List<CompletableFuture<Order>> futures) {
+		for (CompletableFuture<Order> future : futures) {
+			try {
+				future.join();
+			} catch (CompletionException | CancellationException e) {
+				// Counted as failed when the future completed
+			}
+		}
+	}
+}
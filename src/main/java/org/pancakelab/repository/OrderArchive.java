@@ -0,0 +1,96 @@
+package org.pancakelab.repository;
+
+import org.pancakelab.model.order.ArchivedOrder;
+
+import java.util.*;
+
+/**
+ * Bounded in-memory store of {@link ArchivedOrder}s, kept apart from the live {@link OrderRepository}.
+ *
+ * <p>Archived orders are only added by the retention sweep and looked up occasionally, so a single lock
+ * is enough. Once the archive holds {@code capacity} orders, each new one pushes out the oldest, which is then
+ * gone for good; {@link #getDroppedCount()} counts the orders lost that way.</p>
+ */
+public class OrderArchive {
+
+	private final int capacity;
+
+	/** Archived orders by order ID, oldest first */
+	private final LinkedHashMap<UUID, ArchivedOrder> archived;
+
+	/** Number of archived orders pushed out by newer ones */
+	private long dropped;
+
+	/**
+	 * Constructs an archive holding at most {@code capacity} orders.
+	 *
+	 * @param capacity the maximum number of archived orders kept
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	public OrderArchive(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Archive capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.archived = new LinkedHashMap<>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, ArchivedOrder> eldest) {
+				if (size() > OrderArchive.this.capacity) {
+					dropped++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Adds an archived order, dropping the oldest one if the archive is full.
+	 *
+	 * @param order the archived order
+	 * @throws IllegalArgumentException if the order is null
+	 */
+	public synchronized void add(ArchivedOrder order) {
+		if (order == null) {
+			throw new IllegalArgumentException("Archived order must not be null");
+		}
+		archived.put(order.orderId(), order);
+	}
+
+	/**
+	 * Finds an archived order by ID.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the archived order, or an empty {@link Optional} if it is not in the archive
+	 */
+	public synchronized Optional<ArchivedOrder> findById(UUID orderId) {
+		return Optional.ofNullable(archived.get(orderId));
+	}
+
+	/**
+	 * Returns the number of archived orders.
+	 *
+	 * @return the archive size
+	 */
+	public synchronized int size() {
+		return archived.size();
+	}
+
+	/**
+	 * Returns the number of archived orders dropped because the archive was full.
+	 *
+	 * @return the dropped order count
+	 */
+	public synchronized long getDroppedCount() {
+		return dropped;
+	}
+
+	/**
+	 * Returns the maximum number of archived orders kept.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,94 @@
+package org.pancakelab.repository;
+
+import org.pancakelab.model.order.Order;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe in-memory store of {@link Order} instances keyed by their UUID.
+ *
+ * <p>Backed by a {@link ConcurrentHashMap}, so lookups, inserts and deletes run in constant
+ * time and never copy the rest of the store, regardless of how many orders are live.</p>
+ */
+public class OrderRepository {
+
+	/** Orders in the system, indexed by order ID */
+	private final Map<UUID, Order> orders = new ConcurrentHashMap<>();
+
+	/**
+	 * Stores an order, replacing any previous order with the same ID.
+	 *
+	 * @param order the order to store
+	 * @throws IllegalArgumentException if the order is null
+	 */
+	public void save(Order order) {
+		if (order == null) {
+			throw new IllegalArgumentException("Order must not be null");
+		}
+		orders.put(order.getId(), order);
+	}
+
+	/**
+	 * Finds an order by ID.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the order, or an empty {@link Optional} if it is not stored
+	 */
+	public Optional<Order> findById(UUID orderId) {
+		return orderId == null ? Optional.empty() : Optional.ofNullable(orders.get(orderId));
+	}
+
+	/**
+	 * Returns the order with the given ID.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the stored order
+	 * @throws IllegalArgumentException if the order is not stored
+	 */
+	public Order getById(UUID orderId) {
+		Order order = orderId == null ? null : orders.get(orderId);
+		if (order == null) {
+			throw new IllegalArgumentException("Order not found: " + orderId);
+		}
+		return order;
+	}
+
+	/**
+	 * Indicates whether an order with the given ID is stored.
+	 *
+	 * @param orderId the ID of the order
+	 * @return {@code true} if the order is stored
+	 */
+	public boolean contains(UUID orderId) {
+		return orderId != null && orders.containsKey(orderId);
+	}
+
+	/**
+	 * Removes an order from the store.
+	 *
+	 * @param orderId the ID of the order to remove
+	 * @return the removed order, or {@code null} if it was not stored
+	 */
+	public Order delete(UUID orderId) {
+		return orderId == null ? null : orders.remove(orderId);
+	}
+
+	/**
+	 * Returns a snapshot of all stored orders.
+	 *
+	 * @return a new list containing every stored order
+	 */
+	public List<Order> findAll() {
+		return new ArrayList<>(orders.values());
+	}
+
+	/**
+	 * Returns the number of stored orders.
+	 *
+	 * @return the order count
+	 */
+	public int size() {
+		return orders.size();
+	}
+}
@@ -0,0 +1,380 @@
+package org.pancakelab.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.*;
+
+/**
+ * Hashed timing wheel: runs a callback for each scheduled payload once its delay has passed, to within
+ * one tick.
+ *
+ * <p>The wheel is a ring of buckets, one per tick. A timeout is hashed into the bucket of its deadline tick
+ * and carries the number of full turns of the wheel still to wait, so scheduling and cancelling cost O(1)
+ * however many timeouts are pending, and each tick only visits one bucket. Callers never touch the buckets:
+ * they hand new and cancelled timeouts over through lock-free queues, and the thread advancing the wheel
+ * moves them in and out. Expiry callbacks run on that thread, so they should be short.</p>
+ *
+ * Example usage:
+ * <pre>
+ * TimingWheel&lt;UUID&gt; wheel = new TimingWheel&lt;&gt;(1, TimeUnit.SECONDS, 512, orderId -&gt; expire(orderId));
+ * wheel.start();
+ * TimingWheel.Timeout timeout = wheel.schedule(orderId, 30, TimeUnit.MINUTES);
+ * timeout.cancel();
+ * </pre>
+ *
+ * @param <T> the type of the scheduled payloads
+ */
+public class TimingWheel<T> implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+
+	/**
+	 * A payload scheduled on a {@link TimingWheel}.
+	 */
+	public interface Timeout {
+
+		/**
+		 * Cancels the timeout, unless it has already expired.
+		 *
+		 * @return {@code true} if this call cancelled it
+		 */
+		boolean cancel();
+
+		/**
+		 * Indicates whether the callback has been run for this timeout.
+		 *
+		 * @return {@code true} if the timeout expired
+		 */
+		boolean isExpired();
+
+		/**
+		 * Indicates whether the timeout was cancelled before it expired.
+		 *
+		 * @return {@code true} if the timeout was cancelled
+		 */
+		boolean isCancelled();
+	}
+
+	private final long tickNanos;
+	private final Bucket<T>[] buckets;
+	private final int mask;
+	private final LongSupplier clock;
+	private final long startNanos;
+	private final Consumer<? super T> onExpiry;
+
+	/** Timeouts scheduled since the last tick, not in a bucket yet */
+	private final Queue<Node<T>> scheduled = new ConcurrentLinkedQueue<>();
+	/** Timeouts cancelled since the last tick, still to be unlinked from their bucket */
+	private final Queue<Node<T>> cancelled = new ConcurrentLinkedQueue<>();
+
+	/** Number of ticks processed so far; only read and written while holding the wheel's lock */
+	private long tick;
+
+	private volatile Thread ticker;
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a wheel driven by {@link System#nanoTime()}.
+	 *
+	 * @param tickDuration the length of one tick, which is also the precision of the timeouts
+	 * @param unit         the unit of the tick duration
+	 * @param ticksPerWheel the number of buckets, rounded up to a power of two
+	 * @param onExpiry     called with the payload of each expired timeout
+	 * @throws IllegalArgumentException if an argument is null or out of range
+	 */
+	public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, Consumer<? super T> onExpiry) {
+		this(tickDuration, unit, ticksPerWheel, onExpiry, System::nanoTime);
+	}
+
+	/**
+	 * Constructs a wheel reading the time from the given clock, for example a manual clock in tests.
+	 *
+	 * @param tickDuration the length of one tick, which is also the precision of the timeouts
+	 * @param unit         the unit of the tick duration
+	 * @param ticksPerWheel the number of buckets, rounded up to a power of two
+	 * @param onExpiry     called with the payload of each expired timeout
+	 * @param clock        the current time in nanoseconds, from an arbitrary origin
+	 * @throws IllegalArgumentException if an argument is null or out of range
+	 */
+	public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, Consumer<? super T> onExpiry,
+					   LongSupplier clock) {
+		if (unit == null || onExpiry == null || clock == null || tickDuration <= 0
+				|| ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+			throw new IllegalArgumentException("Invalid timing wheel configuration");
+		}
+		this.tickNanos = unit.toNanos(tickDuration);
+		int size = 1;
+		while (size < ticksPerWheel) {
+			size <<= 1;
+		}
+		@SuppressWarnings("unchecked")
+		Bucket<T>[] buckets = (Bucket<T>[]) new Bucket<?>[size];
+		for (int i = 0; i < size; i++) {
+			buckets[i] = new Bucket<>();
+		}
+		this.buckets = buckets;
+		this.mask = size - 1;
+		this.onExpiry = onExpiry;
+		this.clock = clock;
+		this.startNanos = clock.getAsLong();
+	}
+
+	/**
+	 * Schedules a payload to expire after the given delay.
+	 *
+	 * @param payload the payload passed to the expiry callback
+	 * @param delay   the delay, at least one tick is waited if it is shorter
+	 * @param unit    the unit of the delay
+	 * @return the timeout, which can be cancelled
+	 * @throws IllegalArgumentException if the payload or unit is null
+	 * @throws IllegalStateException if the wheel is closed
+	 */
+	public Timeout schedule(T payload, long delay, TimeUnit unit) {
+		if (payload == null || unit == null) {
+			throw new IllegalArgumentException("Payload and unit must not be null");
+		}
+		if (closed) {
+			throw new IllegalStateException("Timing wheel is closed");
+		}
+		long deadline = clock.getAsLong() - startNanos + Math.max(0, unit.toNanos(delay));
+		Node<T> node = new Node<>(this, payload, deadline);
+		scheduled.add(node);
+		return node;
+	}
+
+	/**
+	 * Processes every tick that has passed by now, expiring the timeouts due in them.
+	 * Called by the wheel's own thread once {@link #start()} is called, or directly by the caller otherwise.
+	 *
+	 * @return the number of expired timeouts
+	 */
+	public synchronized int advance() {
+		long elapsed = clock.getAsLong() - startNanos;
+		int expired = 0;
+		while ((tick + 1) * tickNanos <= elapsed) {
+			unlinkCancelled();
+			moveScheduled();
+			expired += expireBucket(buckets[(int) (tick & mask)]);
+			tick++;
+		}
+		return expired;
+	}
+
+	/**
+	 * Returns the number of timeouts waiting in the wheel, including those scheduled or cancelled
+	 * since the last tick.
+	 *
+	 * @return the approximate number of pending timeouts
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (Bucket<T> bucket : buckets) {
+			size += bucket.size;
+		}
+		for (Node<T> node : scheduled) {
+			if (node.state == Node.WAITING) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Starts a daemon thread that advances the wheel once per tick.
+	 *
+	 * @throws IllegalStateException if the wheel is already started or closed
+	 */
+	public synchronized void start() {
+		if (ticker != null || closed) {
+			throw new IllegalStateException("Timing wheel is already started or closed");
+		}
+		Thread thread = new Thread(this::run, "timing-wheel");
+		thread.setDaemon(true);
+		ticker = thread;
+		thread.start();
+	}
+
+	private void run() {
+		while (!closed) {
+			long sleepNanos;
+			synchronized (this) {
+				sleepNanos = (tick + 1) * tickNanos - (clock.getAsLong() - startNanos);
+			}
+			if (sleepNanos > 0) {
+				LockSupport.parkNanos(this, sleepNanos);
+				continue;
+			}
+			advance();
+		}
+	}
+
+	/**
+	 * Stops the wheel's thread. Pending timeouts never expire.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		Thread thread = ticker;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(10));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void unlinkCancelled() {
+		Node<T> node;
+		while ((node = cancelled.poll()) != null) {
+			if (node.bucket != null) {
+				node.bucket.remove(node);
+			}
+		}
+	}
+
+	private void moveScheduled() {
+		Node<T> node;
+		while ((node = scheduled.poll()) != null) {
+			if (node.state != Node.WAITING) {
+				continue;
+			}
+			long deadlineTick = node.deadline / tickNanos;
+			node.remainingRounds = (deadlineTick - tick) / buckets.length;
+			// A deadline already passed goes into the current bucket, so it expires on this tick
+			long targetTick = Math.max(deadlineTick, tick);
+			buckets[(int) (targetTick & mask)].add(node);
+		}
+	}
+
+	/**
+	 * Expires the timeouts of a bucket that are in their last round and counts down the others' rounds.
+	 */
+	private int expireBucket(Bucket<T> bucket) {
+		int expired = 0;
+		Node<T> node = bucket.head;
+		while (node != null) {
+			Node<T> next = node.next;
+			if (node.state == Node.CANCELLED) {
+				bucket.remove(node);
+			} else if (node.remainingRounds <= 0) {
+				bucket.remove(node);
+				if (expire(node)) {
+					expired++;
+				}
+			} else {
+				node.remainingRounds--;
+			}
+			node = next;
+		}
+		return expired;
+	}
+
+	private boolean expire(Node<T> node) {
+		if (!Node.STATE.compareAndSet(node, Node.WAITING, Node.EXPIRED)) {
+			return false;
+		}
+		try {
+			onExpiry.accept(node.payload);
+		} catch (RuntimeException e) {
+			logger.error("Timeout callback failed for {}", node.payload, e);
+		}
+		return true;
+	}
+
+	/**
+	 * A timeout and its links within a bucket.
+	 */
+	private static final class Node<T> implements Timeout {
+
+		static final int WAITING = 0;
+		static final int CANCELLED = 1;
+		static final int EXPIRED = 2;
+
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Node> STATE = AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+
+		final TimingWheel<T> wheel;
+		final T payload;
+		/** Nanoseconds since the wheel started */
+		final long deadline;
+
+		volatile int state = WAITING;
+
+		// Only touched by the thread advancing the wheel
+		long remainingRounds;
+		Bucket<T> bucket;
+		Node<T> prev;
+		Node<T> next;
+
+		Node(TimingWheel<T> wheel, T payload, long deadline) {
+			this.wheel = wheel;
+			this.payload = payload;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public boolean cancel() {
+			if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+				return false;
+			}
+			wheel.cancelled.add(this);
+			return true;
+		}
+
+		@Override
+		public boolean isExpired() {
+			return state == EXPIRED;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return state == CANCELLED;
+		}
+	}
+
+	/**
+	 * Doubly linked list of the timeouts hashed to one tick.
+	 */
+	private static final class Bucket<T> {
+
+		Node<T> head;
+		Node<T> tail;
+		int size;
+
+		void add(Node<T> node) {
+			node.bucket = this;
+			node.prev = tail;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+			size++;
+		}
+
+		void remove(Node<T> node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			node.bucket = null;
+			size--;
+		}
+	}
+}
@@ -1,8 +1,11 @@
 package org.pancakelab.service;
 
+import org.pancakelab.logging.OrderEvents;
 import org.pancakelab.logging.OrderLog;
-import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.metrics.Operation;
+import org.pancakelab.model.order.DeliveryResult;
 import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
 
 import java.util.*;
 
@@ -10,6 +13,10 @@ import java.util.*;
  * Handles the delivery of prepared orders.
  * Verifies order readiness, performs delivery, logs the operation,
  * and cleans up associated resources.
+ *
+ * <p>Orders are delivered one at a time through {@link #deliverOrder(UUID)}, or all at once through
+ * {@link #dispatchPrepared()}, which hands them over grouped by building and room, the way the couriers
+ * run, removes the pancakes of the whole batch in one change and completes the delivered orders.</p>
  */
 public class DeliveryService {
 
@@ -28,17 +35,21 @@ public class DeliveryService {
 	}
 
 	/**
-	 * Delivers a prepared order, logs the delivery, removes its pancakes, and deletes the order.
-	 * Also updates the order's status to DELIVERED after the delivery process.
+	 * Delivers a prepared order, logs the delivery, and removes its pancakes.
+	 * The order is first marked as delivered through {@link OrderService#markDelivered(UUID)}, which moves
+	 * its status from PREPARED to DELIVERED atomically; it stays in the system until it is completed.
 	 *
 	 * @param orderId the ID of the order to deliver
 	 * @return an Object array containing the {@link Order} and list of pancake descriptions,
 	 *         or {@code null} if the order is not in a PREPARED state
 	 */
 	public Object[] deliverOrder(UUID orderId) {
-		// Ensure the order is in the PREPARED state
-		Order order = orderService.findOrderById(orderId);
-		if (order.getStatus() != OrderStatus.PREPARED) {
+		long start = System.nanoTime();
+		OrderEvents.Delivered event = new OrderEvents.Delivered();
+		event.begin();
+		// Claim the order by moving it from PREPARED to DELIVERED, so concurrent deliveries cannot both win
+		Order order = orderService.markDelivered(orderId);
+		if (order == null) {
 			// If the order is not prepared, return null
 			return null;
 		}
@@ -47,16 +58,68 @@ public class DeliveryService {
 		List<String> pancakesToDeliver = pancakeService.viewOrder(orderId);
 
 		// Log the delivery operation
-		OrderLog.logDeliverOrder(order, pancakeService.getAllPancakes());
+		OrderLog.logDeliverOrder(order, pancakesToDeliver.size());
 
-		// Clean up by removing pancakes and deleting the order
+		// Clean up by removing the delivered pancakes
 		pancakeService.removeAllForOrder(orderId);
-		orderService.deleteOrder(orderId);
-
-		// Update the order status to DELIVERED
-		order.setStatus(OrderStatus.DELIVERED);
+		event.commitFor(order, pancakesToDeliver.size());
+		Operation.DELIVER_ORDER.record(start);
 
 		// Return order and the list of pancakes
 		return new Object[]{order, pancakesToDeliver};
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Delivers every prepared order in one batch, grouped by building and ordered by room within a building.
+	 * Each order is claimed through {@link OrderService#markDelivered(UUID)}, so an order delivered
+	 * concurrently elsewhere is left out; the pancakes of all claimed orders are then removed in one change.
+	 * Nothing else completes a batch, so each delivered order is then completed through
+	 * {@link OrderService#completeOrder(UUID)}, which removes it.
+	 *
+	 * @return the delivered orders by building, in building order; empty if no order was prepared
+	 */
+	public SortedMap<Integer, List<DeliveryResult>> dispatchPrepared() {
+		long start = System.nanoTime();
+		List<Order> claimed = new ArrayList<>();
+		for (UUID orderId : orderService.listPreparedOrders()) {
+			if (!orderService.getOrderRepository().contains(orderId)) {
+				continue;
+			}
+			try {
+				Order order = orderService.markDelivered(orderId);
+				if (order != null) {
+					claimed.add(order);
+				}
+			} catch (IllegalArgumentException e) {
+				// Removed since the prepared orders were listed
+			}
+		}
+		claimed.sort(Comparator.comparingInt(Order::getBuilding).thenComparingInt(Order::getRoom));
+
+		List<UUID> orderIds = new ArrayList<>(claimed.size());
+		for (Order order : claimed) {
+			orderIds.add(order.getId());
+		}
+		Map<UUID, OrderLines> linesByOrder = pancakeService.removeAllForOrders(orderIds);
+
+		SortedMap<Integer, List<DeliveryResult>> byBuilding = new TreeMap<>();
+		for (Order order : claimed) {
+			OrderEvents.Delivered event = new OrderEvents.Delivered();
+			event.begin();
+			OrderLines lines = linesByOrder.getOrDefault(order.getId(), OrderLines.EMPTY);
+			OrderLog.logDeliverOrder(order, lines.getPancakeCount());
+			event.commitFor(order, lines.getPancakeCount());
+			byBuilding.computeIfAbsent(order.getBuilding(), building -> new ArrayList<>())
+					.add(new DeliveryResult(order, lines));
+		}
+		for (UUID orderId : orderIds) {
+			try {
+				orderService.completeOrder(orderId);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				// Completed or removed elsewhere since it was delivered
+			}
+		}
+		Operation.DISPATCH_PREPARED.record(start);
+		return byBuilding;
+	}
+}
@@ -0,0 +1,198 @@
+package org.pancakelab.service;
+
+import org.pancakelab.logging.OrderLog;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.scheduler.TimingWheel;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps one deadline per open order on a {@link TimingWheel}: a CREATED order that is not confirmed in time
+ * is cancelled as abandoned, and a PREPARED order that is not delivered within the delivery SLA is flagged
+ * as overdue.
+ *
+ * <p>{@link OrderService} reports every status change here once the deadlines are attached with
+ * {@link OrderService#setDeadlines}, and each change replaces the order's deadline in O(1). Expired deadlines
+ * re-check the order's current status, so an order delivered outside the service, or a change racing with the
+ * expiry, is never cancelled or flagged by mistake.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderDeadlines deadlines = new OrderDeadlines(orderService, pancakeService, 30, 15, TimeUnit.MINUTES);
+ * orderService.setDeadlines(deadlines);
+ * deadlines.start();
+ * </pre>
+ */
+public class OrderDeadlines implements AutoCloseable {
+
+	private static final long TICK_MILLIS = 1000;
+	private static final int TICKS_PER_WHEEL = 512;
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final long createdTimeoutNanos;
+	private final long deliverySlaNanos;
+	private final TimingWheel<Order> wheel;
+
+	/** The pending deadline of each tracked order */
+	private final Map<UUID, TimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+
+	/** PREPARED orders that missed their delivery SLA */
+	private final Set<UUID> overdue = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructs the deadlines with a one-second precision.
+	 *
+	 * @param orderService   the service whose abandoned orders are cancelled
+	 * @param pancakeService the service holding the orders' pancakes
+	 * @param createdTimeout how long an order may stay CREATED before it is cancelled
+	 * @param deliverySla    how long an order may stay PREPARED before it is flagged as overdue
+	 * @param unit           the unit of both durations
+	 * @throws IllegalArgumentException if an argument is null or a duration is not positive
+	 */
+	public OrderDeadlines(OrderService orderService, PancakeService pancakeService,
+						  long createdTimeout, long deliverySla, TimeUnit unit) {
+		this(orderService, pancakeService, createdTimeout, deliverySla, unit,
+				TICK_MILLIS, TimeUnit.MILLISECONDS, System::nanoTime);
+	}
+
+	/**
+	 * Constructs the deadlines on a wheel with the given tick, reading the time from the given clock.
+	 */
+	OrderDeadlines(OrderService orderService, PancakeService pancakeService, long createdTimeout, long deliverySla,
+				   TimeUnit unit, long tick, TimeUnit tickUnit, LongSupplier clock) {
+		if (orderService == null || pancakeService == null || unit == null || createdTimeout <= 0 || deliverySla <= 0) {
+			throw new IllegalArgumentException("Invalid deadline configuration");
+		}
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.createdTimeoutNanos = unit.toNanos(createdTimeout);
+		this.deliverySlaNanos = unit.toNanos(deliverySla);
+		this.wheel = new TimingWheel<>(tick, tickUnit, TICKS_PER_WHEEL, this::expire, clock);
+	}
+
+	/**
+	 * Starts checking the deadlines on the wheel's own daemon thread.
+	 */
+	public void start() {
+		wheel.start();
+	}
+
+	/**
+	 * Expires the deadlines that have passed by now, when the deadlines are not started.
+	 *
+	 * @return the number of expired deadlines
+	 */
+	public int advance() {
+		return wheel.advance();
+	}
+
+	/**
+	 * Replaces the deadline of an order with the one of its current status: the abandon timeout for CREATED,
+	 * the delivery SLA for PREPARED, and none otherwise.
+	 *
+	 * @param order the order whose status changed
+	 */
+	void track(Order order) {
+		UUID orderId = order.getId();
+		OrderStatus status = order.getStatus();
+		long delay = switch (status) {
+			case CREATED -> createdTimeoutNanos;
+			case PREPARED -> deliverySlaNanos;
+			default -> -1;
+		};
+		TimingWheel.Timeout previous = delay < 0
+				? timeouts.remove(orderId)
+				: timeouts.put(orderId, wheel.schedule(order, delay, TimeUnit.NANOSECONDS));
+		if (previous != null) {
+			previous.cancel();
+		}
+		if (status != OrderStatus.PREPARED) {
+			overdue.remove(orderId);
+		}
+	}
+
+	/**
+	 * Drops the deadline of an order removed from the system.
+	 *
+	 * @param orderId the ID of the removed order
+	 */
+	void untrack(UUID orderId) {
+		TimingWheel.Timeout previous = timeouts.remove(orderId);
+		if (previous != null) {
+			previous.cancel();
+		}
+		overdue.remove(orderId);
+	}
+
+	private void expire(Order order) {
+		UUID orderId = order.getId();
+		timeouts.computeIfPresent(orderId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+		switch (order.getStatus()) {
+			case CREATED -> {
+				try {
+					orderService.cancelOrder(orderId, pancakeService.countPancakes(orderId));
+					OrderLog.logAbandonOrder(order);
+				} catch (IllegalArgumentException | IllegalStateException e) {
+					// Confirmed, cancelled or removed since the deadline passed
+				}
+			}
+			case PREPARED -> {
+				if (orderService.getOrderRepository().contains(orderId) && overdue.add(orderId)) {
+					OrderLog.logDeliveryOverdue(order, TimeUnit.NANOSECONDS.toMinutes(deliverySlaNanos));
+				}
+			}
+			default -> {
+			}
+		}
+	}
+
+	/**
+	 * Indicates whether a PREPARED order has missed its delivery SLA.
+	 *
+	 * @param orderId the ID of the order
+	 * @return {@code true} if the order is flagged as overdue
+	 */
+	public boolean isOverdue(UUID orderId) {
+		return overdue.contains(orderId);
+	}
+
+	/**
+	 * Returns the IDs of the PREPARED orders that missed their delivery SLA.
+	 *
+	 * @return a copy of the overdue order IDs
+	 */
+	public Set<UUID> getOverdueOrders() {
+		return new HashSet<>(overdue);
+	}
+
+	/**
+	 * Returns the number of orders with a pending deadline.
+	 *
+	 * @return the number of tracked orders
+	 */
+	public int countTracked() {
+		return timeouts.size();
+	}
+
+	/**
+	 * Returns how long an order may stay PREPARED before it is flagged as overdue.
+	 *
+	 * @param unit the unit of the result
+	 * @return the delivery SLA in the given unit
+	 */
+	public long getDeliverySla(TimeUnit unit) {
+		return unit.convert(deliverySlaNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stops checking the deadlines.
+	 */
+	@Override
+	public void close() {
+		wheel.close();
+	}
+}
@@ -0,0 +1,146 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.ArchivedOrder;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.repository.OrderArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Moves orders that have been CANCELLED or COMPLETED for longer than a time-to-live out of {@link OrderService}
+ * and {@link PancakeService} into an {@link OrderArchive}, so the live services only hold recent and active orders.
+ * DELIVERED orders are left alone: they are still waiting for {@link OrderService#completeOrder(UUID)}, which
+ * removes them, and their pancakes were already removed at delivery.
+ *
+ * <p>A sweep reads the candidates from the status index, so its cost is proportional to the number of
+ * terminal orders rather than to all orders. It runs on its own daemon thread once {@link #start} is called,
+ * or on demand through {@link #sweep(long)}.</p>
+ *
+ * Example usage:
+ * <pre>
+ * OrderRetention retention = new OrderRetention(orderService, pancakeService, new OrderArchive(10_000), 60, TimeUnit.MINUTES);
+ * retention.start(1, TimeUnit.MINUTES);
+ * </pre>
+ */
+public class OrderRetention implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderRetention.class);
+
+	private static final OrderStatus[] ARCHIVED = {OrderStatus.CANCELLED, OrderStatus.COMPLETED};
+
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final OrderArchive archive;
+	private final long timeToLiveMillis;
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructs a retention that archives terminal orders after the given time-to-live.
+	 *
+	 * @param orderService   the service holding the orders
+	 * @param pancakeService the service holding the orders' pancakes
+	 * @param archive        receives the archived orders
+	 * @param timeToLive     how long an order stays in a terminal status before it is archived
+	 * @param unit           the unit of the time-to-live
+	 * @throws IllegalArgumentException if an argument is null or the time-to-live is negative
+	 */
+	public OrderRetention(OrderService orderService, PancakeService pancakeService, OrderArchive archive,
+						  long timeToLive, TimeUnit unit) {
+		if (orderService == null || pancakeService == null || archive == null || unit == null || timeToLive < 0) {
+			throw new IllegalArgumentException("Invalid retention configuration");
+		}
+		this.orderService = orderService;
+		this.pancakeService = pancakeService;
+		this.archive = archive;
+		this.timeToLiveMillis = unit.toMillis(timeToLive);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "order-retention");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sweeps every {@code period}.
+	 *
+	 * @param period the time between sweeps
+	 * @param unit   the unit of the period
+	 */
+	public void start(long period, TimeUnit unit) {
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				sweep(System.currentTimeMillis());
+			} catch (RuntimeException e) {
+				logger.error("Order retention sweep failed", e);
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Archives every order that has been CANCELLED or COMPLETED for at least the time-to-live at {@code now}.
+	 *
+	 * @param now the current wall-clock time, in milliseconds since the epoch
+	 * @return the number of archived orders
+	 */
+	public synchronized int sweep(long now) {
+		int archived = 0;
+		for (OrderStatus status : ARCHIVED) {
+			for (UUID orderId : orderService.listOrdersByStatus(status)) {
+				Order order = orderService.getOrderRepository().findById(orderId).orElse(null);
+				if (order != null && order.getStatus() == status
+						&& now - order.getStatusChangedAt() >= timeToLiveMillis && archive(order)) {
+					archived++;
+				}
+			}
+		}
+		if (archived > 0) {
+			logger.debug("Archived {} finished order(s), {} in archive, {} dropped from it so far", archived,
+					archive.size(), archive.getDroppedCount());
+		}
+		return archived;
+	}
+
+	/**
+	 * Returns the archive receiving the archived orders.
+	 *
+	 * @return the order archive
+	 */
+	public OrderArchive getArchive() {
+		return archive;
+	}
+
+	private boolean archive(Order order) {
+		UUID orderId = order.getId();
+		// Pancakes cannot change once an order is cancelled or completed, and only delivery removes them, so the
+		// line items read here are final
+		ArchivedOrder archived = new ArchivedOrder(orderId, order.getBuilding(), order.getRoom(), order.getStatus(),
+				order.getStatusChangedAt(), pancakeService.getLineItems(orderId));
+		try {
+			if (!orderService.evictOrder(orderId)) {
+				return false;
+			}
+		} catch (IllegalStateException e) {
+			return false;
+		}
+		pancakeService.removeAllForOrder(orderId);
+		archive.add(archived);
+		return true;
+	}
+
+	/**
+	 * Stops sweeping. A sweep in progress is finished first.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
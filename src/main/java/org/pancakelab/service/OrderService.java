@@ -1,66 +1,254 @@
 package org.pancakelab.service;
 
+import org.pancakelab.inventory.IngredientInventory;
+import org.pancakelab.journal.OrderJournal;
+import org.pancakelab.logging.OrderEvents;
 import org.pancakelab.logging.OrderLog;
+import org.pancakelab.metrics.Operation;
 import org.pancakelab.model.constant.OrderStatus;
 import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderIdGenerator;
 import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.repository.OrderRepository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing the lifecycle of pancake orders.
  * Handles creation, cancellation, preparation, and completion of orders.
+ *
+ * <p>An order's status lives only on the {@link Order} itself and changes through its atomic
+ * compare-and-set transitions. Each change is made and journaled while holding the order's monitor, which
+ * {@link PancakeService} also holds while changing the order's pancakes, so the journal records the changes
+ * of one order in the order they were applied. Changes to different orders never wait on each other.</p>
  */
 public class OrderService {
 
-	private final List<Order> orders = new CopyOnWriteArrayList<>();
-	private final Map<UUID, OrderStatus> orderStatusMap = new ConcurrentHashMap<>();
+	private final OrderRepository orders;
 
+	/** Produces the IDs of the orders created by this service */
+	private final OrderIdGenerator idGenerator;
+
+	/** Secondary index of order IDs by status, kept in step with each order's status */
+	private final Map<OrderStatus, Set<UUID>> statusIndex = new EnumMap<>(OrderStatus.class);
+
+	/** Receives every change made by this service */
+	private volatile OrderJournal journal = OrderJournal.NONE;
+
+	/** Tracks the deadline of each open order, if attached */
+	private volatile OrderDeadlines deadlines;
+
+	/** Gives back or uses up the ingredients reserved by each order, if attached */
+	private volatile IngredientInventory inventory;
+
+	/**
+	 * Constructs an OrderService backed by a new, empty {@link OrderRepository}.
+	 */
+	public OrderService() {
+		this(new OrderRepository());
+	}
+
+	/**
+	 * Constructs an OrderService backed by the given repository, with time-ordered order IDs.
+	 *
+	 * @param orders the repository holding the orders
+	 */
+	public OrderService(OrderRepository orders) {
+		this(orders, OrderIdGenerator.timeOrdered());
+	}
+
+	/**
+	 * Constructs an OrderService backed by the given repository.
+	 *
+	 * @param orders      the repository holding the orders
+	 * @param idGenerator produces the IDs of new orders
+	 */
+	public OrderService(OrderRepository orders, OrderIdGenerator idGenerator) {
+		this.orders = orders;
+		this.idGenerator = idGenerator;
+		for (OrderStatus status : OrderStatus.values()) {
+			statusIndex.put(status, ConcurrentHashMap.newKeySet());
+		}
+	}
+
+	/**
+	 * Attaches the journal that records every change made by this service.
+	 *
+	 * @param journal the journal, or {@link OrderJournal#NONE} to stop journaling
+	 */
+	public void setJournal(OrderJournal journal) {
+		this.journal = journal == null ? OrderJournal.NONE : journal;
+	}
+
+	/**
+	 * Attaches the deadlines that cancel abandoned orders and flag late deliveries, and starts tracking
+	 * the orders already in the system from now.
+	 *
+	 * @param deadlines the deadlines, or {@code null} to stop tracking
+	 */
+	public void setDeadlines(OrderDeadlines deadlines) {
+		this.deadlines = deadlines;
+		if (deadlines != null) {
+			orders.findAll().forEach(deadlines::track);
+		}
+	}
+
+	/**
+	 * Attaches the inventory whose reservations are given back when an order is cancelled or removed, and
+	 * used up when it is delivered or completed.
+	 *
+	 * @param inventory the inventory, or {@code null} to stop settling reservations
+	 */
+	public void setInventory(IngredientInventory inventory) {
+		this.inventory = inventory;
+	}
 
 	/**
 	 * Creates a new {@link Order} and registers it in the system.
 	 */
 	public Order createOrder(int building, int room) {
-		Order order = new Order(building, room);
-		orders.add(order);
-		orderStatusMap.put(order.getId(), OrderStatus.CREATED);
+		long start = System.nanoTime();
+		OrderEvents.Created event = new OrderEvents.Created();
+		event.begin();
+		Order order = register(new Order(idGenerator.nextId(), building, room));
+		event.commitFor(order);
+		Operation.CREATE_ORDER.record(start);
+		return order;
+	}
+
+	/**
+	 * Registers an order with a known ID, for example when restoring orders from a journal.
+	 *
+	 * @throws IllegalArgumentException if an order with this ID already exists
+	 */
+	public Order restoreOrder(UUID orderId, int building, int room) {
+		if (orders.contains(orderId)) {
+			throw new IllegalArgumentException("Order already exists: " + orderId);
+		}
+		return register(new Order(orderId, building, room));
+	}
+
+	private Order register(Order order) {
+		OrderJournal journal = this.journal;
+		journal.beginChange();
+		try {
+			orders.save(order);
+			reindex(order, null, OrderStatus.CREATED);
+			journal.orderCreated(order.getId(), order.getBuilding(), order.getRoom());
+			trackDeadline(order);
+		} finally {
+			journal.endChange();
+		}
 		return order;
 	}
 
 	/**
 	 * Cancels the order and updates its status to CANCELLED.
 	 * Also logs the operation.
+	 *
+	 * @param orderId  the ID of the order to cancel
+	 * @param pancakes the pancakes of the order, used for logging
 	 */
-	public void cancelOrder(UUID orderId, List<Pancake> allPancakes) {
+	public void cancelOrder(UUID orderId, List<Pancake> pancakes) {
+		cancelOrder(orderId, pancakes.size());
+	}
+
+	/**
+	 * Cancels the order and updates its status to CANCELLED.
+	 * Also logs the operation.
+	 *
+	 * @param orderId      the ID of the order to cancel
+	 * @param pancakeCount the number of pancakes in the order, used for logging
+	 */
+	public void cancelOrder(UUID orderId, int pancakeCount) {
+		long start = System.nanoTime();
+		OrderEvents.Cancelled event = new OrderEvents.Cancelled();
+		event.begin();
 		Order order = findOrderById(orderId);
 
 		// Only update status if it’s not already cancelled
-		OrderStatus currentStatus = getOrderStatus(orderId);
-		if (currentStatus == OrderStatus.CANCELLED) {
+		if (order.getStatus() == OrderStatus.CANCELLED) {
 			throw new IllegalStateException("Order is already cancelled.");
 		}
 
-		orderStatusMap.put(orderId, OrderStatus.CANCELLED);
-		OrderLog.logCancelOrder(order, allPancakes);
+		updateStatus(order, OrderStatus.CANCELLED);
+		OrderLog.logCancelOrder(order, pancakeCount);
+		event.commitFor(order, pancakeCount);
+		Operation.CANCEL_ORDER.record(start);
 	}
 
 	/**
 	 * Marks the order as completed.
+	 * A delivered order is removed from the system once it is completed.
 	 */
 	public void completeOrder(UUID orderId) {
-		validateOrderExists(orderId);
-		orderStatusMap.put(orderId, OrderStatus.COMPLETED);
+		long start = System.nanoTime();
+		OrderEvents.Completed event = new OrderEvents.Completed();
+		event.begin();
+		Order order = findOrderById(orderId);
+		synchronized (order) {
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				OrderStatus previous = order.transitionTo(OrderStatus.COMPLETED);
+				if (previous == OrderStatus.DELIVERED) {
+					removeOrder(orderId);
+				} else {
+					reindex(order, previous, OrderStatus.COMPLETED);
+					trackDeadline(order);
+					settleIngredients(orderId, OrderStatus.COMPLETED);
+				}
+				journal.statusChanged(orderId, OrderStatus.COMPLETED);
+			} finally {
+				journal.endChange();
+			}
+		}
+		event.commitFor(order);
+		Operation.COMPLETE_ORDER.record(start);
 	}
 
 	/**
 	 * Marks the order as prepared.
 	 */
 	public void prepareOrder(UUID orderId) {
-		validateOrderExists(orderId);
-		orderStatusMap.put(orderId, OrderStatus.PREPARED);
+		long start = System.nanoTime();
+		OrderEvents.Prepared event = new OrderEvents.Prepared();
+		event.begin();
+		Order order = findOrderById(orderId);
+		updateStatus(order, OrderStatus.PREPARED);
+		event.commitFor(order);
+		Operation.PREPARE_ORDER.record(start);
+	}
+
+	/**
+	 * Marks a prepared order as delivered. The order stays in the system, filed under DELIVERED, until
+	 * {@link #completeOrder(UUID)} removes it.
+	 * The status is moved from PREPARED to DELIVERED atomically, so of several concurrent deliveries of the
+	 * same order only one succeeds.
+	 *
+	 * @param orderId the ID of the order to deliver
+	 * @return the delivered order, or {@code null} if the order was not PREPARED
+	 * @throws IllegalArgumentException if the order is not found
+	 */
+	public Order markDelivered(UUID orderId) {
+		Order order = findOrderById(orderId);
+		synchronized (order) {
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				if (!order.compareAndSetStatus(OrderStatus.PREPARED, OrderStatus.DELIVERED)) {
+					return null;
+				}
+				reindex(order, OrderStatus.PREPARED, OrderStatus.DELIVERED);
+				journal.statusChanged(orderId, OrderStatus.DELIVERED);
+				trackDeadline(order);
+				settleIngredients(orderId, OrderStatus.DELIVERED);
+			} finally {
+				journal.endChange();
+			}
+		}
+		return order;
 	}
 
 	/**
@@ -85,54 +273,200 @@ public class OrderService {
 	}
 
 	/**
-	 * Returns a filtered set of order IDs by status.
+	 * Returns the set of order IDs with the given status.
+	 * Reads only the status index, so the cost is proportional to the size of the result.
 	 */
-	private Set<UUID> listOrdersByStatus(OrderStatus status) {
-		return orderStatusMap.entrySet().stream()
-				.filter(entry -> entry.getValue() == status)
-				.map(Map.Entry::getKey)
-				.collect(Collectors.toSet());
+	public Set<UUID> listOrdersByStatus(OrderStatus status) {
+		return new HashSet<>(statusIndex.get(status));
+	}
+
+	/**
+	 * Returns the number of orders currently in the given status.
+	 */
+	public int countOrders(OrderStatus status) {
+		return statusIndex.get(status).size();
+	}
+
+	/**
+	 * Moves an order to the given status and updates the status index.
+	 *
+	 * @throws IllegalStateException if the order's current status cannot move to the given one
+	 */
+	private void updateStatus(Order order, OrderStatus status) {
+		synchronized (order) {
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				OrderStatus previous = order.transitionTo(status);
+				reindex(order, previous, status);
+				journal.statusChanged(order.getId(), status);
+				trackDeadline(order);
+				settleIngredients(order.getId(), status);
+			} finally {
+				journal.endChange();
+			}
+		}
+	}
+
+	/**
+	 * Moves an order ID from its previous status bucket to the new one.
+	 *
+	 * <p>Transitions of one order can finish their index updates out of order. Since the state machine
+	 * never revisits a status, an entry added after the order already moved on (or was deleted) is stale,
+	 * and is dropped again right away.</p>
+	 */
+	private void reindex(Order order, OrderStatus previous, OrderStatus status) {
+		UUID orderId = order.getId();
+		if (previous != null) {
+			statusIndex.get(previous).remove(orderId);
+		}
+		Set<UUID> bucket = statusIndex.get(status);
+		bucket.add(orderId);
+		if (order.getStatus() != status || !orders.contains(orderId)) {
+			bucket.remove(orderId);
+		}
 	}
 
 	/**
 	 * Retrieves all orders in the system.
 	 */
 	public List<Order> getAllOrders() {
-		return new ArrayList<>(orders);
+		return orders.findAll();
 	}
 
 	/**
-	 * Finds an order by ID.
+	 * Returns the repository holding the orders of this service.
 	 */
-	public Order findOrderById(UUID orderId) {
-		return orders.stream()
-				.filter(order -> order.getId().equals(orderId))
-				.findFirst()
-				.orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+	public OrderRepository getOrderRepository() {
+		return orders;
 	}
 
 	/**
-	 * Validates that an order exists.
+	 * Finds an order by ID.
 	 */
-	private void validateOrderExists(UUID orderId) {
-		if (!orderStatusMap.containsKey(orderId)) {
-			throw new IllegalArgumentException("Order not found: " + orderId);
-		}
+	public Order findOrderById(UUID orderId) {
+		return orders.getById(orderId);
 	}
 
 	/**
 	 * Returns the current status of the order.
 	 */
 	public OrderStatus getOrderStatus(UUID orderId) {
-		validateOrderExists(orderId);
-		return orderStatusMap.get(orderId);
+		return findOrderById(orderId).getStatus();
 	}
 
 	/**
-	 * Deletes the order completely from the system.
+	 * Deletes the order completely from the system, whatever its status.
 	 */
 	public void deleteOrder(UUID orderId) {
-		orders.removeIf(order -> order.getId().equals(orderId));
-		orderStatusMap.remove(orderId);
+		Order order = orders.findById(orderId).orElse(null);
+		if (order == null) {
+			return;
+		}
+		synchronized (order) {
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				if (removeOrder(orderId)) {
+					journal.orderDeleted(orderId);
+				}
+			} finally {
+				journal.endChange();
+			}
+		}
+	}
+
+	/**
+	 * Removes an order in a terminal status from the system, whatever that status is.
+	 * Unlike {@link #deleteOrder(UUID)}, a delivered order is removed as well.
+	 *
+	 * @param orderId the ID of the order to evict
+	 * @return {@code true} if the order was removed; {@code false} if it was not in the system
+	 * @throws IllegalStateException if the order is not in a terminal status
+	 */
+	public boolean evictOrder(UUID orderId) {
+		Order order = orders.findById(orderId).orElse(null);
+		if (order == null) {
+			return false;
+		}
+		synchronized (order) {
+			if (!order.getStatus().isTerminal()) {
+				throw new IllegalStateException("Order " + orderId + " is still " + order.getStatus());
+			}
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				if (!removeOrder(orderId)) {
+					return false;
+				}
+				journal.orderDeleted(orderId);
+				return true;
+			} finally {
+				journal.endChange();
+			}
+		}
+	}
+
+	/**
+	 * Removes the order from the repository and from the status index.
+	 *
+	 * @return {@code true} if the order was in the repository
+	 */
+	private boolean removeOrder(UUID orderId) {
+		if (orders.delete(orderId) == null) {
+			return false;
+		}
+		// The order may have been moved to a new status by a caller outside this service
+		statusIndex.values().forEach(bucket -> bucket.remove(orderId));
+		untrackDeadline(orderId);
+		releaseIngredients(orderId);
+		return true;
+	}
+
+	/**
+	 * Replaces the order's deadline with the one of its current status, if deadlines are attached.
+	 */
+	private void trackDeadline(Order order) {
+		OrderDeadlines deadlines = this.deadlines;
+		if (deadlines != null) {
+			deadlines.track(order);
+		}
+	}
+
+	/**
+	 * Drops the deadline of a removed order, if deadlines are attached.
+	 */
+	private void untrackDeadline(UUID orderId) {
+		OrderDeadlines deadlines = this.deadlines;
+		if (deadlines != null) {
+			deadlines.untrack(orderId);
+		}
+	}
+
+	/**
+	 * Settles the ingredients reserved by an order that moved to the given status, if an inventory is
+	 * attached: a cancelled order gives them back, a delivered or completed one uses them up.
+	 */
+	private void settleIngredients(UUID orderId, OrderStatus status) {
+		IngredientInventory inventory = this.inventory;
+		if (inventory == null) {
+			return;
+		}
+		switch (status) {
+			case CANCELLED -> inventory.releaseOrder(orderId);
+			case DELIVERED, COMPLETED -> inventory.consumeOrder(orderId);
+			default -> {
+			}
+		}
+	}
+
+	/**
+	 * Gives back the ingredients still reserved by a removed order, if an inventory is attached.
+	 */
+	private void releaseIngredients(UUID orderId) {
+		IngredientInventory inventory = this.inventory;
+		if (inventory != null) {
+			inventory.releaseOrder(orderId);
+		}
 	}
-}
\ No newline at end of file
+}
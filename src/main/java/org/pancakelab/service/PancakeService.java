@@ -1,32 +1,75 @@
 package org.pancakelab.service;
 
+import org.pancakelab.inventory.IngredientInventory;
+import org.pancakelab.journal.OrderJournal;
+import org.pancakelab.logging.OrderEvents;
 import org.pancakelab.logging.OrderLog;
+import org.pancakelab.metrics.Operation;
 import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.LineItem;
 import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderLines;
 import org.pancakelab.builder.PancakeBuilder;
 import org.pancakelab.model.constant.Ingredient;
 import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.repository.OrderRepository;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class responsible for managing pancake creation, addition, and removal from orders.
+ *
+ * <p>Pancakes are added and removed while holding the order's monitor, the same lock {@link OrderService}
+ * holds while changing the order's status, so the status check, the change and its journal record happen in
+ * one critical section and the journal holds the changes of an order in the order they were applied.</p>
  */
 public class PancakeService {
 
-	/** List of pancakes in the system */
-	private final List<Pancake> pancakes = new CopyOnWriteArrayList<>();
+	/** Pancake contents of each order, as run-length line items keyed by order ID */
+	private final Map<UUID, OrderLines> linesByOrder = new ConcurrentHashMap<>();
+
+	/** Receives every change made by this service */
+	private volatile OrderJournal journal = OrderJournal.NONE;
+
+	/** Reserves the ingredients of added pancakes, if attached */
+	private volatile IngredientInventory inventory;
 
 	/**
-	 * Adds multiple pancakes to an order and logs the action.
+	 * Attaches the journal that records every change made by this service.
+	 *
+	 * @param journal the journal, or {@link OrderJournal#NONE} to stop journaling
+	 */
+	public void setJournal(OrderJournal journal) {
+		this.journal = journal == null ? OrderJournal.NONE : journal;
+	}
+
+	/**
+	 * Attaches the inventory that reserves the ingredients of the pancakes added from now on, and gives
+	 * them back when pancakes are removed.
+	 *
+	 * @param inventory the inventory, or {@code null} to stop reserving
+	 */
+	public void setInventory(IngredientInventory inventory) {
+		this.inventory = inventory;
+	}
+
+	/**
+	 * Adds multiple pancakes to an order in one operation and logs the action once.
+	 * The pancakes are stored as a quantity on the order's line item for the pancake's recipe and price,
+	 * so the cost does not depend on {@code count}.
 	 *
 	 * @param order    the order to add pancakes to
 	 * @param pancake the pancake to add to the order
 	 * @param count    the number of pancakes to add
+	 * @throws IllegalStateException if the order is not CREATED, or an ingredient is out of stock
 	 */
 	public void addPancakes(Order order, Pancake pancake, int count) {
+		long start = System.nanoTime();
+		OrderEvents.PancakesAdded event = new OrderEvents.PancakesAdded();
+		event.begin();
 		// Validate the order's status before performing any operation
 		validateOrderStatus(order);
 
@@ -34,27 +77,53 @@ public class PancakeService {
 			throw new IllegalArgumentException("Invalid order, pancake, or count");
 		}
 
-		// Add the specified number of pancakes to the order
-		for (int i = 0; i < count; i++) {
-			pancake.setOrderId(order.getId());
-			pancakes.add(pancake);
-			OrderLog.logAddPancake(order, pancake.getDescription(), pancakes);
+		pancake.setOrderId(order.getId());
+		OrderLines lines;
+		synchronized (order) {
+			// Checked again under the order's lock, so no status change is journaled between the check and the add
+			validateOrderStatus(order);
+			IngredientInventory inventory = this.inventory;
+			if (inventory != null) {
+				inventory.reserve(order.getId(), pancake.getRecipe(), count);
+			}
+			OrderJournal journal = this.journal;
+			boolean applied = false;
+			journal.beginChange();
+			try {
+				lines = linesByOrder.compute(order.getId(), (id, current) ->
+						(current == null ? OrderLines.EMPTY : current).add(pancake.getRecipe(), pancake.getPrice(), count));
+				applied = true;
+				journal.pancakesAdded(order.getId(), pancake.getRecipe(), pancake.getPrice(), count);
+			} catch (RuntimeException e) {
+				// Once the pancakes are on the order they keep their stock, even if the journal append failed
+				if (inventory != null && !applied) {
+					inventory.release(order.getId(), pancake.getRecipe(), count);
+				}
+				throw e;
+			} finally {
+				journal.endChange();
+			}
 		}
+		OrderLog.logAddPancakes(order, pancake.getDescription(), count, lines.getPancakeCount());
+		event.commitFor(order, count, lines.getPancakeCount());
+		Operation.ADD_PANCAKES.record(start);
 	}
 
 	/**
 	 * Removes pancakes from an order by count and logs the action.
+	 * The first pancakes added to the order are removed first.
 	 *
 	 * @param orderId the order ID to remove pancakes from
 	 * @param count   the number of pancakes to remove
-	 * @param orders  the list of orders in the system
+	 * @param orders  the repository of orders in the system
 	 * @throws IllegalArgumentException if the order is not found
 	 */
-	public void removePancakes(UUID orderId, int count, List<Order> orders) {
+	public void removePancakes(UUID orderId, int count, OrderRepository orders) {
+		long start = System.nanoTime();
+		OrderEvents.PancakesRemoved event = new OrderEvents.PancakesRemoved();
+		event.begin();
 		// Validate that the order is in a valid state before removing pancakes
-		Order order = orders.stream()
-				.filter(o -> o.getId().equals(orderId))
-				.findFirst()
+		Order order = orders.findById(orderId)
 				.orElseThrow(() -> new IllegalArgumentException("Order not found"));
 
 		validateOrderStatus(order);
@@ -63,35 +132,126 @@ public class PancakeService {
 			throw new IllegalArgumentException("Count must be greater than 0");
 		}
 
-		final AtomicInteger removedCount = new AtomicInteger(0);
-
-		// Remove the pancakes from the order
-		pancakes.removeIf(p -> p.getOrderId().equals(orderId) && removedCount.getAndIncrement() < count);
+		int[] removedCount = new int[1];
+		OrderLines[] before = new OrderLines[1];
+		OrderLines lines;
+		synchronized (order) {
+			// Checked again under the order's lock, so no status change is journaled between the check and the removal
+			validateOrderStatus(order);
+			OrderJournal journal = this.journal;
+			journal.beginChange();
+			try {
+				lines = linesByOrder.computeIfPresent(orderId, (id, current) -> {
+					before[0] = current;
+					removedCount[0] = Math.min(count, current.getPancakeCount());
+					OrderLines left = current.removeFirst(count);
+					return left.isEmpty() ? null : left;
+				});
+				if (removedCount[0] > 0) {
+					journal.pancakesRemoved(orderId, removedCount[0]);
+				}
+			} finally {
+				journal.endChange();
+				// Once the pancakes are off the order their stock goes back, even if the journal append failed
+				IngredientInventory inventory = this.inventory;
+				if (inventory != null && removedCount[0] > 0) {
+					releaseFirst(inventory, orderId, before[0], removedCount[0]);
+				}
+			}
+		}
 
-		OrderLog.logRemovePancakes(order, removedCount.get(), pancakes);
+		OrderLog.logRemovePancakes(order, removedCount[0], lines == null ? 0 : lines.getPancakeCount());
+		event.commitFor(order, removedCount[0], lines == null ? 0 : lines.getPancakeCount());
+		Operation.REMOVE_PANCAKES.record(start);
 	}
 
 	/**
 	 * Retrieves the descriptions of pancakes associated with a specific order.
 	 *
 	 * @param orderId the ID of the order to retrieve pancakes for
-	 * @return a list of pancake descriptions for the order
+	 * @return a list of pancake descriptions for the order, one per pancake; a read-only view of the
+	 *         order's contents at the time of the call
 	 */
 	public List<String> viewOrder(UUID orderId) {
-		// Retrieve the descriptions of pancakes for the specified order
-		return pancakes.stream()
-				.filter(p -> p.getOrderId().equals(orderId))
-				.map(Pancake::getDescription)
-				.toList();
+		return getLines(orderId).getDescriptions();
+	}
+
+	/**
+	 * Retrieves the pancakes associated with a specific order.
+	 *
+	 * @param orderId the ID of the order to retrieve pancakes for
+	 * @return a read-only view of the order's pancakes at the time of the call, or an empty list if it
+	 *         has none; each access creates the pancake from its line item
+	 */
+	public List<Pancake> getPancakes(UUID orderId) {
+		OrderLines lines = getLines(orderId);
+		if (lines.isEmpty()) {
+			return List.of();
+		}
+		return new AbstractList<>() {
+			@Override
+			public Pancake get(int index) {
+				return lines.itemOfPancake(index).toPancake(orderId);
+			}
+
+			@Override
+			public int size() {
+				return lines.getPancakeCount();
+			}
+		};
+	}
+
+	/**
+	 * Retrieves the pancake contents of an order as line items of recipe, unit price and quantity.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the order's line items, or an empty list if it has none
+	 */
+	public List<LineItem> getLineItems(UUID orderId) {
+		return getLines(orderId).getItems();
+	}
+
+	/**
+	 * Retrieves the pancake contents of an order with its running totals: pancake count, total price and
+	 * per-ingredient counts. The returned value is immutable and consistent, however the order changes later.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the order's contents, or {@link OrderLines#EMPTY} if it has no pancakes
+	 */
+	public OrderLines getOrderLines(UUID orderId) {
+		return getLines(orderId);
+	}
+
+	/**
+	 * Returns the total price of the pancakes of an order.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the order total
+	 */
+	public double getTotalPrice(UUID orderId) {
+		return getLines(orderId).getTotalPrice();
+	}
+
+	/**
+	 * Returns the number of pancakes associated with a specific order.
+	 *
+	 * @param orderId the ID of the order
+	 * @return the order's pancake count
+	 */
+	public int countPancakes(UUID orderId) {
+		return getLines(orderId).getPancakeCount();
 	}
 
 	/**
 	 * Retrieves all pancakes in the system.
+	 * This creates every pancake of every order, so prefer {@link #getLineItems(UUID)} where possible.
 	 *
 	 * @return a list of all pancakes
 	 */
 	public List<Pancake> getAllPancakes() {
-		return pancakes;
+		List<Pancake> allPancakes = new ArrayList<>();
+		linesByOrder.keySet().forEach(orderId -> allPancakes.addAll(getPancakes(orderId)));
+		return allPancakes;
 	}
 
 	/**
@@ -100,7 +260,63 @@ public class PancakeService {
 	 * @param orderId the ID of the order whose pancakes to remove
 	 */
 	public void removeAllForOrder(UUID orderId) {
-		pancakes.removeIf(p -> p.getOrderId().equals(orderId));
+		if (orderId == null) {
+			return;
+		}
+		OrderJournal journal = this.journal;
+		journal.beginChange();
+		try {
+			if (linesByOrder.remove(orderId) != null) {
+				journal.pancakesCleared(orderId);
+			}
+		} finally {
+			journal.endChange();
+		}
+	}
+
+	/**
+	 * Removes the pancakes of several orders at once, as a single change.
+	 *
+	 * @param orderIds the IDs of the orders
+	 * @return the removed contents of each order that had pancakes
+	 */
+	public Map<UUID, OrderLines> removeAllForOrders(Collection<UUID> orderIds) {
+		Map<UUID, OrderLines> removed = new HashMap<>();
+		OrderJournal journal = this.journal;
+		journal.beginChange();
+		try {
+			for (UUID orderId : orderIds) {
+				OrderLines lines = orderId == null ? null : linesByOrder.remove(orderId);
+				if (lines != null) {
+					removed.put(orderId, lines);
+					journal.pancakesCleared(orderId);
+				}
+			}
+		} finally {
+			journal.endChange();
+		}
+		return removed;
+	}
+
+	/**
+	 * Gives back the ingredients of the first {@code count} pancakes of an order's former contents,
+	 * which are the ones {@link OrderLines#removeFirst(int)} removed.
+	 */
+	private static void releaseFirst(IngredientInventory inventory, UUID orderId, OrderLines lines, int count) {
+		int left = count;
+		for (LineItem item : lines.getItems()) {
+			if (left == 0) {
+				break;
+			}
+			int removed = Math.min(left, item.quantity());
+			inventory.release(orderId, item.recipe(), removed);
+			left -= removed;
+		}
+	}
+
+	private OrderLines getLines(UUID orderId) {
+		OrderLines lines = orderId == null ? null : linesByOrder.get(orderId);
+		return lines == null ? OrderLines.EMPTY : lines;
 	}
 
 	/**
@@ -120,7 +336,6 @@ public class PancakeService {
 
 		PancakeBuilder builder = new PancakeBuilder();
 		Pancake pancake = null;
-		double totalPrice = 0;
 		Ingredient[] ingredients = Ingredient.values();
 
 		try {
@@ -133,14 +348,10 @@ public class PancakeService {
 					continue;
 				}
 
-				Ingredient selected = ingredients[index];
-				totalPrice += selected.getPrice();
-				builder.addIngredient(selected.name().toLowerCase().replace("_", " "));
+				builder.addIngredient(ingredients[index]);
 			}
 
-			pancake = builder.build();
-			pancake.setOrderId(order.getId());
-			pancake.setPrice(totalPrice);
+			pancake = createPancakeFromRecipe(builder.recipe(), order);
 
 			System.out.println("✅\u001B[32m Creating Pancake with ingredients: " + pancake.getDescription());
 
@@ -153,6 +364,23 @@ public class PancakeService {
 		return pancake;
 	}
 
+	/**
+	 * Creates a pancake from a shared recipe and associates it with an order.
+	 * The pancake is priced at the recipe price.
+	 *
+	 * @param recipe the recipe of the pancake
+	 * @param order  the order to associate the pancake with
+	 * @return the newly created pancake
+	 */
+	public Pancake createPancakeFromRecipe(Recipe recipe, Order order) {
+		// Validate the order's status before performing any operation
+		validateOrderStatus(order);
+
+		Pancake pancake = new RecipePancake(recipe);
+		pancake.setOrderId(order.getId());
+		return pancake;
+	}
+
 	/**
 	 * Validates if an order is in the correct state before pancake creation or modification.
 	 *
@@ -0,0 +1,271 @@
+package org.pancakelab.template;
+
+import org.pancakelab.metrics.Operation;
+import org.pancakelab.model.order.Order;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs many orders concurrently through the stages of an {@link OrderProcessTemplate}.
+ *
+ * <p>Each stage (prepare, deliver, complete) has its own bounded queue and its own workers, so a slow
+ * order only occupies one worker of one stage while the others keep flowing. When a stage's queue is
+ * full, handing an order to it blocks: {@link #submit(UUID)} blocks the producer when the prepare queue
+ * is full, and a stage blocks on the next one, which propagates backpressure to the callers instead of
+ * buffering without bound.</p>
+ *
+ * <p>The workers run on the {@link ExecutorService} passed in, which the pipeline owns and shuts down on
+ * {@link #close()}. It needs at least {@code 3 * workersPerStage} threads; a bounded platform pool is
+ * created by {@link #withPlatformThreads}, and on Java 21+ a virtual-thread-per-task executor can be passed
+ * to run many workers cheaply.</p>
+ *
+ * <p>An order is in the pipeline at most once: submitting an order that has not finished yet is rejected,
+ * so of two callers confirming the same order at once only one gets it processed.</p>
+ *
+ * <p>Each stage run is timed into its {@link Operation} histogram, and each finished order into
+ * {@link Operation#PROCESS_ORDER} from its submission, including the time it waited in the queues.</p>
+ *
+ * Example usage:
+ * <pre>
+ * try (OrderPipeline pipeline = OrderPipeline.withPlatformThreads(process, orderService::findOrderById, 4, 256)) {
+ *     CompletableFuture&lt;Order&gt; delivered = pipeline.submit(orderId);
+ * }
+ * </pre>
+ */
+public class OrderPipeline implements AutoCloseable {
+
+	/** Marks the end of the work for one worker */
+	private static final Job POISON = new Job(null, null, null, 0);
+
+	private final OrderProcessTemplate process;
+	private final Function<UUID, Order> orderLookup;
+	private final ExecutorService executor;
+	private final int workersPerStage;
+
+	private final BlockingQueue<Job> prepareQueue;
+	private final BlockingQueue<Job> deliverQueue;
+	private final BlockingQueue<Job> completeQueue;
+
+	/** IDs of the submitted orders that have not finished yet */
+	private final Set<UUID> inFlight = new HashSet<>();
+	private boolean closed;
+
+	/**
+	 * Constructs a pipeline and starts its workers.
+	 *
+	 * @param process         the order process whose stages are run
+	 * @param orderLookup     finds the order for an ID; called on submission, before any stage runs
+	 * @param executor        runs the stage workers; owned by the pipeline from now on
+	 * @param workersPerStage number of workers per stage
+	 * @param queueCapacity   capacity of each stage queue
+	 * @throws IllegalArgumentException if an argument is null or a size is not positive
+	 */
+	public OrderPipeline(OrderProcessTemplate process, Function<UUID, Order> orderLookup, ExecutorService executor,
+						 int workersPerStage, int queueCapacity) {
+		if (process == null || orderLookup == null || executor == null || workersPerStage <= 0 || queueCapacity <= 0) {
+			throw new IllegalArgumentException("Invalid pipeline configuration");
+		}
+		this.process = process;
+		this.orderLookup = orderLookup;
+		this.executor = executor;
+		this.workersPerStage = workersPerStage;
+		this.prepareQueue = new ArrayBlockingQueue<>(queueCapacity);
+		this.deliverQueue = new ArrayBlockingQueue<>(queueCapacity);
+		this.completeQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+		for (int i = 0; i < workersPerStage; i++) {
+			executor.execute(() -> runStage(prepareQueue, deliverQueue, process::prepare, Operation.PREPARE_STAGE));
+			executor.execute(() -> runStage(deliverQueue, completeQueue, process::deliver, Operation.DELIVER_STAGE));
+			executor.execute(() -> runStage(completeQueue, null, process::complete, Operation.COMPLETE_STAGE));
+		}
+	}
+
+	/**
+	 * Creates a pipeline whose workers run on a fixed pool of platform threads.
+	 *
+	 * @param process         the order process whose stages are run
+	 * @param orderLookup     finds the order for an ID
+	 * @param workersPerStage number of workers per stage
+	 * @param queueCapacity   capacity of each stage queue
+	 * @return the started pipeline
+	 */
+	public static OrderPipeline withPlatformThreads(OrderProcessTemplate process, Function<UUID, Order> orderLookup,
+													int workersPerStage, int queueCapacity) {
+		ThreadFactory threads = runnable -> {
+			Thread thread = new Thread(runnable, "order-pipeline");
+			thread.setDaemon(true);
+			return thread;
+		};
+		return new OrderPipeline(process, orderLookup, Executors.newFixedThreadPool(3 * workersPerStage, threads),
+				workersPerStage, queueCapacity);
+	}
+
+	/**
+	 * Submits an order to the pipeline, blocking while the prepare queue is full.
+	 *
+	 * @param orderId the ID of the order to process
+	 * @return a future completed with the order once it has passed every stage, or completed
+	 *         exceptionally with the failure of the first stage that failed
+	 * @throws IllegalStateException if the pipeline is closed or the order is already in it
+	 * @throws CancellationException if the calling thread is interrupted while waiting for queue space
+	 */
+	public CompletableFuture<Order> submit(UUID orderId) {
+		return submitIf(orderId, order -> true);
+	}
+
+	/**
+	 * Submits an order to the pipeline if it passes the given check, blocking while the prepare queue is full.
+	 * The check runs once the order is claimed by this submission, so it cannot race another submission of
+	 * the same order.
+	 *
+	 * @param orderId the ID of the order to process
+	 * @param ready   whether the order may be processed, such as a check of its status
+	 * @return a future completed with the order once it has passed every stage, or completed
+	 *         exceptionally with the failure of the first stage that failed
+	 * @throws IllegalStateException if the pipeline is closed, the order is already in it or fails the check
+	 * @throws CancellationException if the calling thread is interrupted while waiting for queue space
+	 */
+	public CompletableFuture<Order> submitIf(UUID orderId, Predicate<Order> ready) {
+		long submittedNanos = System.nanoTime();
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("Order pipeline is closed");
+			}
+			if (!inFlight.add(orderId)) {
+				throw new IllegalStateException("Order " + orderId + " is already being processed");
+			}
+		}
+		CompletableFuture<Order> result = new CompletableFuture<>();
+		Order order;
+		try {
+			order = orderLookup.apply(orderId);
+		} catch (RuntimeException e) {
+			finish(orderId);
+			result.completeExceptionally(e);
+			return result;
+		}
+		if (!ready.test(order)) {
+			finish(orderId);
+			throw new IllegalStateException("Order " + orderId + " is " + order.getStatus());
+		}
+		try {
+			prepareQueue.put(new Job(orderId, order, result, submittedNanos));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			finish(orderId);
+			result.cancel(false);
+			throw new CancellationException("Interrupted while submitting order " + orderId);
+		}
+		return result;
+	}
+
+	/**
+	 * Submits several orders, blocking while the prepare queue is full.
+	 *
+	 * @param orderIds the IDs of the orders to process
+	 * @return one future per order, in submission order
+	 */
+	public List<CompletableFuture<Order>> submitAll(Collection<UUID> orderIds) {
+		List<CompletableFuture<Order>> results = new ArrayList<>(orderIds.size());
+		for (UUID orderId : orderIds) {
+			results.add(submit(orderId));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the number of submitted orders that have not finished yet.
+	 *
+	 * @return the in-flight order count
+	 */
+	public synchronized int inFlight() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Stops accepting orders, waits for the in-flight orders to finish, then stops the workers.
+	 */
+	@Override
+	public void close() {
+		boolean interrupted = false;
+		synchronized (this) {
+			closed = true;
+			while (!inFlight.isEmpty()) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		for (int i = 0; i < workersPerStage; i++) {
+			prepareQueue.offer(POISON);
+			deliverQueue.offer(POISON);
+			completeQueue.offer(POISON);
+		}
+		executor.shutdown();
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Worker loop of one stage: runs and times the stage for each queued order and hands it to the next queue.
+	 */
+	private void runStage(BlockingQueue<Job> queue, BlockingQueue<Job> next, Stage stage, Operation operation) {
+		try {
+			while (true) {
+				Job job = queue.take();
+				if (job == POISON) {
+					return;
+				}
+				try {
+					long start = System.nanoTime();
+					stage.run(job.orderId);
+					operation.record(start);
+				} catch (RuntimeException e) {
+					finish(job.orderId);
+					job.result.completeExceptionally(e);
+					continue;
+				}
+				if (next == null) {
+					Operation.PROCESS_ORDER.record(job.submittedNanos);
+					finish(job.orderId);
+					job.result.complete(job.order);
+				} else {
+					next.put(job);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Marks one order as finished. Called before its future is completed, so a caller woken by the
+	 * future never observes the order as still in flight.
+	 */
+	private synchronized void finish(UUID orderId) {
+		inFlight.remove(orderId);
+		if (inFlight.isEmpty()) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * A single step of the order process.
+	 */
+	@FunctionalInterface
+	private interface Stage {
+		void run(UUID orderId);
+	}
+
+	/**
+	 * An order travelling through the pipeline.
+	 */
+	private record Job(UUID orderId, Order order, CompletableFuture<Order> result, long submittedNanos) {
+	}
+}
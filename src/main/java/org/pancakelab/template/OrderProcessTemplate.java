@@ -1,13 +1,20 @@
 package org.pancakelab.template;
 
+import org.pancakelab.metrics.Operation;
+
 import java.util.*;
 
 public abstract class OrderProcessTemplate {
 
 	public final void processOrder(UUID orderId) {
+		long start = System.nanoTime();
 		prepare(orderId);
+		long prepared = Operation.PREPARE_STAGE.record(start);
 		deliver(orderId);
+		long delivered = Operation.DELIVER_STAGE.record(prepared);
 		complete(orderId);
+		Operation.COMPLETE_STAGE.record(delivered);
+		Operation.PROCESS_ORDER.record(start);
 	}
 
 	protected abstract void prepare(UUID orderId);
@@ -1,5 +1,7 @@
 package org.pancakelab.template;
 
+import org.pancakelab.logging.OrderEvents;
+import org.pancakelab.model.order.Order;
 import org.pancakelab.service.DeliveryService;
 import org.pancakelab.service.OrderService;
 import org.pancakelab.service.PancakeService;
@@ -21,16 +23,35 @@ public class PancakeOrderProcess extends OrderProcessTemplate {
 
 	@Override
 	protected void prepare(UUID orderId) {
-		orderService.prepareOrder(orderId);
+		runStage("prepare", orderId, () -> orderService.prepareOrder(orderId));
 	}
 
 	@Override
 	protected void deliver(UUID orderId) {
-		deliveryService.deliverOrder(orderId);
+		runStage("deliver", orderId, () -> deliveryService.deliverOrder(orderId));
 	}
 
 	@Override
 	protected void complete(UUID orderId) {
-		orderService.completeOrder(orderId);
+		runStage("complete", orderId, () -> orderService.completeOrder(orderId));
+	}
+
+	/**
+	 * Runs a stage inside its flight recorder event. The order and its pancake count are only looked up
+	 * when a recording has the event enabled, before the stage runs, since delivery removes both.
+	 */
+	private void runStage(String stage, UUID orderId, Runnable action) {
+		OrderEvents.Stage event = new OrderEvents.Stage(stage);
+		Order order = null;
+		int pancakeCount = 0;
+		if (event.isEnabled()) {
+			order = orderService.findOrderById(orderId);
+			pancakeCount = pancakeService.countPancakes(orderId);
+		}
+		event.begin();
+		action.run();
+		if (order != null) {
+			event.commitFor(order, pancakeCount);
+		}
 	}
 }
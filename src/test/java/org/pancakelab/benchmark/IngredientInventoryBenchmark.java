@@ -0,0 +1,41 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.inventory.IngredientInventory;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reserving and releasing the ingredients of a three-topping pancake, each thread for its own order.
+ * Run with {@code -t} to contend on the shared stock counters.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=IngredientInventoryBenchmark -Djmh.args="-t 8"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngredientInventoryBenchmark {
+
+	private static final Recipe RECIPE = Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUT, Ingredient.WHIPPED_CREAM);
+
+	private final IngredientInventory inventory = new IngredientInventory(Long.MAX_VALUE / 2);
+
+	@State(Scope.Thread)
+	public static class ThreadOrder {
+		final UUID orderId = UUID.randomUUID();
+	}
+
+	@Benchmark
+	public void reserveAndRelease(ThreadOrder order) {
+		inventory.reserve(order.orderId, RECIPE, 2);
+		inventory.release(order.orderId, RECIPE, 2);
+	}
+}
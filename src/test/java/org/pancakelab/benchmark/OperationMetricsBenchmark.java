@@ -0,0 +1,34 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.metrics.Operation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost the instrumentation adds to an operation: one clock read before it, and the clock read
+ * plus histogram update of {@link Operation#record(long)} after it. The {@code baseline} benchmark is the
+ * clock read alone.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=OperationMetricsBenchmark -Djmh.args="-t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationMetricsBenchmark {
+
+	@Benchmark
+	public long baseline() {
+		return System.nanoTime();
+	}
+
+	@Benchmark
+	public long record() {
+		return Operation.ADD_PANCAKES.record(System.nanoTime());
+	}
+}
@@ -0,0 +1,46 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.order.OrderIdGenerator;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures order creation throughput with time-ordered IDs against {@link UUID#randomUUID()}, which
+ * {@code Order} used before and which serializes threads on a shared {@code SecureRandom}.
+ *
+ * <p>Run it at increasing thread counts to see the contention, for example:</p>
+ * <pre>
+ * for t in 1 4 16 64; do mvn -Pbenchmark test -Djmh.includes=OrderIdBenchmark -Djmh.args="-t $t"; done
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIdBenchmark {
+
+	@Param({"random", "timeOrdered"})
+	private String generator;
+
+	private OrderIdGenerator ids;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ids = generator.equals("random") ? OrderIdGenerator.random() : OrderIdGenerator.timeOrdered();
+	}
+
+	@Benchmark
+	public UUID nextId() {
+		return ids.nextId();
+	}
+
+	@Benchmark
+	public Order createOrder() {
+		return new Order(ids.nextId(), 1, 101);
+	}
+}
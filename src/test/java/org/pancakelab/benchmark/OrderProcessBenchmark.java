@@ -0,0 +1,58 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderProcessTemplate;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the whole life of an order: create it, add pancakes, then run
+ * {@link PancakeOrderProcess#processOrder} through prepare, deliver and complete.
+ * The services hold {@code storeSize} other open orders throughout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderProcessBenchmark {
+
+	@Param({"1000", "100000"})
+	private int storeSize;
+
+	@Param({"5"})
+	private int pancakesPerOrder;
+
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private OrderProcessTemplate orderProcess;
+	private Recipe recipe;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		orderProcess = new PancakeOrderProcess(pancakeService, orderService, new DeliveryService(pancakeService, orderService));
+		recipe = Recipe.of(Ingredient.HAZELNUT, Ingredient.MILK_CHOCOLATE);
+		for (int i = 0; i < storeSize; i++) {
+			Order order = orderService.createOrder(1, 101);
+			pancakeService.addPancakes(order, pancakeService.createPancakeFromRecipe(recipe, order), pancakesPerOrder);
+		}
+	}
+
+	@Benchmark
+	public Order processOrder() {
+		Order order = orderService.createOrder(3, 303);
+		pancakeService.addPancakes(order, pancakeService.createPancakeFromRecipe(recipe, order), pancakesPerOrder);
+		orderProcess.processOrder(order.getId());
+		return order;
+	}
+}
@@ -0,0 +1,52 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.service.OrderService;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link OrderService} hot paths against a store pre-filled with {@code storeSize} orders.
+ * Run with {@code -t} to share the service between several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+	@Param({"1000", "100000"})
+	private int storeSize;
+
+	private OrderService orderService;
+	private UUID[] ids;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		orderService = new OrderService();
+		ids = new UUID[storeSize];
+		for (int i = 0; i < storeSize; i++) {
+			ids[i] = orderService.createOrder(1 + i % 10, 1 + i % 100).getId();
+		}
+	}
+
+	@Benchmark
+	public Order findOrderById() {
+		return orderService.findOrderById(ids[ThreadLocalRandom.current().nextInt(storeSize)]);
+	}
+
+	/**
+	 * Creates an order and deletes it again, keeping the store at its configured size.
+	 */
+	@Benchmark
+	public Order createAndDeleteOrder() {
+		Order order = orderService.createOrder(1, 101);
+		orderService.deleteOrder(order.getId());
+		return order;
+	}
+}
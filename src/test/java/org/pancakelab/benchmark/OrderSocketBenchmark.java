@@ -0,0 +1,101 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.ipc.OrderProtocol;
+import org.pancakelab.ipc.OrderSocketClient;
+import org.pancakelab.ipc.OrderSocketServer;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip of an order view over the {@link OrderSocketServer}, one request at a time and
+ * with {@value #PIPELINE_DEPTH} requests pipelined per write. Each benchmark thread has its own connection.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=OrderSocketBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSocketBenchmark {
+
+	private static final int PIPELINE_DEPTH = 64;
+
+	private Path dir;
+	private OrderPipeline pipeline;
+	private OrderSocketServer server;
+	private UUID orderId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, new DeliveryService(pancakeService, orderService)),
+				orderService::findOrderById, 1, 16);
+		dir = Files.createTempDirectory("pancakelab-socket");
+		server = new OrderSocketServer(orderService, pancakeService, pipeline, dir.resolve("orders.sock"));
+		server.start();
+		var order = orderService.createOrder(1, 101);
+		pancakeService.addPancakes(order, new RecipePancake(Recipe.of(3)), 2);
+		orderId = order.getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		server.close();
+		pipeline.close();
+		Files.deleteIfExists(dir);
+	}
+
+	@State(Scope.Thread)
+	public static class Connection {
+
+		OrderSocketClient client;
+
+		@Setup(Level.Trial)
+		public void connect(OrderSocketBenchmark benchmark) throws IOException {
+			client = new OrderSocketClient(benchmark.server.getPath());
+		}
+
+		@TearDown(Level.Trial)
+		public void disconnect() throws IOException {
+			client.close();
+		}
+	}
+
+	@Benchmark
+	public byte viewOrder(Connection connection) throws IOException {
+		return connection.client.call(OrderProtocol.VIEW_ORDER, out -> OrderSocketClient.putId(out, orderId)).status();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PIPELINE_DEPTH)
+	public int viewOrderPipelined(Connection connection) throws IOException {
+		OrderSocketClient client = connection.client;
+		for (int i = 0; i < PIPELINE_DEPTH; i++) {
+			client.send(OrderProtocol.VIEW_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		}
+		client.flush();
+		int ok = 0;
+		for (int i = 0; i < PIPELINE_DEPTH; i++) {
+			ok += client.receive().status() == OrderProtocol.OK ? 1 : 0;
+		}
+		return ok;
+	}
+}
@@ -0,0 +1,103 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.repository.OrderRepository;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hash-indexed {@link OrderRepository} against the list-based store that
+ * {@code OrderService} used before: a {@link CopyOnWriteArrayList} scanned with a stream on
+ * every lookup and copied by {@code removeIf} on every delete.
+ *
+ * <p>Each benchmark keeps the store at {@code storeSize} orders: the delete benchmarks put a
+ * fresh order back after removing one.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStoreBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	private int storeSize;
+
+	private OrderRepository repository;
+	private List<Order> list;
+	private UUID[] ids;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		repository = new OrderRepository();
+		List<Order> seed = new ArrayList<>(storeSize);
+		ids = new UUID[storeSize];
+		for (int i = 0; i < storeSize; i++) {
+			Order order = new Order(1, 1);
+			seed.add(order);
+			repository.save(order);
+			ids[i] = order.getId();
+		}
+		list = new CopyOnWriteArrayList<>(seed);
+	}
+
+	private int nextIndex() {
+		return ThreadLocalRandom.current().nextInt(storeSize);
+	}
+
+	@Benchmark
+	public Order findRepository() {
+		return repository.getById(ids[nextIndex()]);
+	}
+
+	@Benchmark
+	public Order findList() {
+		UUID orderId = ids[nextIndex()];
+		return list.stream()
+				.filter(order -> order.getId().equals(orderId))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	@Benchmark
+	public Order insertRepository() {
+		Order order = new Order(1, 1);
+		repository.save(order);
+		repository.delete(order.getId());
+		return order;
+	}
+
+	@Benchmark
+	public Order insertList() {
+		Order order = new Order(1, 1);
+		list.add(order);
+		list.remove(list.size() - 1);
+		return order;
+	}
+
+	@Benchmark
+	public Order deleteRepository() {
+		int index = nextIndex();
+		Order removed = repository.delete(ids[index]);
+		Order replacement = new Order(1, 1);
+		repository.save(replacement);
+		ids[index] = replacement.getId();
+		return removed;
+	}
+
+	@Benchmark
+	public boolean deleteList() {
+		int index = nextIndex();
+		UUID orderId = ids[index];
+		boolean removed = list.removeIf(order -> order.getId().equals(orderId));
+		Order replacement = new Order(1, 1);
+		list.add(replacement);
+		ids[index] = replacement.getId();
+		return removed;
+	}
+}
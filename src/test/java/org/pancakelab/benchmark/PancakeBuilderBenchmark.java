@@ -0,0 +1,36 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.builder.PancakeBuilder;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Pancake;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building a two-ingredient pancake through both {@link PancakeBuilder} entry points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PancakeBuilderBenchmark {
+
+	@Benchmark
+	public Pancake buildFromNames() {
+		return new PancakeBuilder()
+				.addIngredient("Dark Chocolate")
+				.addIngredient("Whipped Cream")
+				.build();
+	}
+
+	@Benchmark
+	public Pancake buildFromIngredients() {
+		return new PancakeBuilder()
+				.addIngredient(Ingredient.DARK_CHOCOLATE)
+				.addIngredient(Ingredient.WHIPPED_CREAM)
+				.build();
+	}
+}
@@ -0,0 +1,76 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.builder.PancakeBuilder;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link PancakeService} hot paths. The shared service holds {@code storeSize} other
+ * orders with {@code pancakesPerOrder} pancakes each; every benchmark thread works on its own order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PancakeServiceBenchmark {
+
+	@Param({"1000", "10000"})
+	private int storeSize;
+
+	@Param({"10", "50", "500"})
+	private int pancakesPerOrder;
+
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private Pancake pancake;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		pancake = new PancakeBuilder()
+				.addIngredient(Ingredient.MILK_CHOCOLATE)
+				.addIngredient(Ingredient.WHIPPED_CREAM)
+				.build();
+		for (int i = 0; i < storeSize; i++) {
+			pancakeService.addPancakes(orderService.createOrder(1, 101), pancake.copy(), pancakesPerOrder);
+		}
+	}
+
+	/**
+	 * Per-thread order that already holds {@code pancakesPerOrder} pancakes.
+	 */
+	@State(Scope.Thread)
+	public static class ThreadOrder {
+		Order order;
+
+		@Setup(Level.Trial)
+		public void setUp(PancakeServiceBenchmark benchmark) {
+			order = benchmark.orderService.createOrder(2, 202);
+			benchmark.pancakeService.addPancakes(order, benchmark.pancake.copy(), benchmark.pancakesPerOrder);
+		}
+	}
+
+	/**
+	 * Adds a batch of pancakes and removes it again, keeping the order at its configured size.
+	 */
+	@Benchmark
+	public void addAndRemovePancakes(ThreadOrder threadOrder) {
+		pancakeService.addPancakes(threadOrder.order, pancake.copy(), pancakesPerOrder);
+		pancakeService.removePancakes(threadOrder.order.getId(), pancakesPerOrder, orderService.getOrderRepository());
+	}
+
+	@Benchmark
+	public List<String> viewOrder(ThreadOrder threadOrder) {
+		return pancakeService.viewOrder(threadOrder.order.getId());
+	}
+}
@@ -1,7 +1,9 @@
 package org.pancakelab.builder;
 
 import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.Ingredient;
 import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.Recipe;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +49,21 @@ class PancakeBuilderTest {
 		Pancake pancake = new PancakeBuilder().build();
 		assertEquals("", pancake.getDescription());
 	}
+
+	@Test
+	void shouldShareRecipeForSameIngredients() {
+		Pancake first = new PancakeBuilder()
+				.addIngredient("Hazelnut")
+				.addIngredient(Ingredient.MILK_CHOCOLATE)
+				.build();
+		Pancake second = new PancakeBuilder()
+				.addIngredient(Ingredient.MILK_CHOCOLATE)
+				.addIngredient(Ingredient.HAZELNUT)
+				.build();
+
+		assertNotSame(first, second);
+		assertSame(first.getRecipe(), second.getRecipe());
+		assertSame(Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUT), first.getRecipe());
+		assertEquals(5, first.getPrice());
+	}
 }
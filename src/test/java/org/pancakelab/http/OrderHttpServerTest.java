@@ -0,0 +1,154 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderHttpServerTest {
+
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private OrderPipeline pipeline;
+	private OrderHttpServer server;
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, new DeliveryService(pancakeService, orderService)),
+				orderService::findOrderById, 1, 16);
+		server = new OrderHttpServer(orderService, pancakeService, pipeline, 0, OrderHttpServer.perRequestExecutor());
+		server.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.close();
+		pipeline.close();
+	}
+
+	private HttpResponse<String> send(String method, String path, String body) throws Exception {
+		URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+		HttpRequest request = HttpRequest.newBuilder(uri)
+				.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	public void testOrderLifecycleOverHttp() throws Exception {
+		HttpResponse<String> created = send("POST", "/orders", "{\"building\": 3, \"room\": 301, \"note\": [1, {\"a\": null}]}");
+		assertEquals(201, created.statusCode());
+		Order order = orderService.getAllOrders().get(0);
+		assertTrue(created.body().contains("\"id\":\"" + order.getId() + "\""));
+		assertTrue(created.body().contains("\"room\":301"));
+
+		String orderPath = "/orders/" + order.getId();
+		HttpResponse<String> added = send("POST", orderPath + "/pancakes",
+				"{\"ingredients\":[\"MILK_CHOCOLATE\",\"HAZELNUT\"],\"quantity\":3}");
+		assertEquals(200, added.statusCode());
+		assertTrue(added.body().contains("\"pancakeCount\":3"), added.body());
+		assertTrue(added.body().contains("\"description\":\"Milk Chocolate Hazelnut\""), added.body());
+
+		assertEquals(200, send("DELETE", orderPath + "/pancakes?count=1", null).statusCode());
+		assertEquals(2, pancakeService.countPancakes(order.getId()));
+		assertTrue(send("GET", orderPath, null).body().contains("\"totalPrice\":10.0"));
+
+		assertEquals(202, send("POST", orderPath + "/confirm", null).statusCode());
+		pipeline.close();
+		assertEquals(OrderStatus.COMPLETED, order.getStatus());
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		Order order = orderService.createOrder(1, 101);
+		assertEquals(200, send("POST", "/orders/" + order.getId() + "/cancel", null).statusCode());
+
+		assertEquals(409, send("POST", "/orders/" + order.getId() + "/cancel", null).statusCode());
+		assertEquals(404, send("GET", "/orders/" + UUID.randomUUID(), null).statusCode());
+		assertEquals(400, send("GET", "/orders/not-a-uuid", null).statusCode());
+		assertEquals(400, send("POST", "/orders", "{\"building\": 1").statusCode());
+		assertEquals(400, send("POST", "/orders", "{\"building\": 1}").statusCode());
+
+		HttpResponse<String> cancelled = send("GET", "/orders?status=CANCELLED", null);
+		assertEquals("{\"status\":\"CANCELLED\",\"orders\":[\"" + order.getId() + "\"]}", cancelled.body());
+	}
+
+	@Test
+	public void testConcurrentClients() throws Exception {
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> statuses = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			int room = i;
+			statuses.add(clients.submit(() -> send("POST", "/orders", "{\"building\":1,\"room\":" + room + "}").statusCode()));
+		}
+		for (Future<Integer> status : statuses) {
+			assertEquals(201, status.get());
+		}
+		clients.shutdown();
+		assertEquals(200, orderService.countOrders(OrderStatus.CREATED));
+	}
+
+	@Test
+	public void testConcurrentConfirmsProcessTheOrderOnce() throws Exception {
+		Order order = orderService.createOrder(1, 101);
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> statuses = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			statuses.add(clients.submit(() -> send("POST", "/orders/" + order.getId() + "/confirm", null).statusCode()));
+		}
+		List<Integer> codes = new ArrayList<>();
+		for (Future<Integer> status : statuses) {
+			codes.add(status.get());
+		}
+		clients.shutdown();
+
+		// The losers get a 409 while the order is being processed, and a 404 once it is completed and removed
+		assertEquals(1, Collections.frequency(codes, 202), codes.toString());
+		assertEquals(7, Collections.frequency(codes, 409) + Collections.frequency(codes, 404), codes.toString());
+		pipeline.close();
+		assertEquals(OrderStatus.COMPLETED, order.getStatus());
+	}
+
+	@Test
+	public void testJsonRoundTrip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JsonWriter json = new JsonWriter(out)) {
+			json.beginObject().name("n").value(Long.MIN_VALUE).name("z").value(0).name("s").value("a\"b\\é\n").endObject();
+		}
+		String text = out.toString(StandardCharsets.US_ASCII);
+		assertEquals("{\"n\":-9223372036854775808,\"z\":0,\"s\":\"a\\\"b\\\\\\u00e9\\u000a\"}", text);
+
+		JsonReader json = new JsonReader(new ByteArrayInputStream("{\"s\":\"a\\\"b\\\\\\u00e9\\u000a\",\"t\":\"ü\"}".getBytes(StandardCharsets.UTF_8)));
+		json.beginObject();
+		assertTrue(json.hasNext());
+		assertEquals("s", json.nextName());
+		assertEquals("a\"b\\é\n", json.nextString());
+		assertTrue(json.hasNext());
+		assertEquals("t", json.nextName());
+		assertEquals("ü", json.nextString());
+		assertFalse(json.hasNext());
+		json.endObject();
+	}
+}
@@ -0,0 +1,125 @@
+package org.pancakelab.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngredientInventoryTest {
+
+	private static final Recipe CHOCOLATE_HAZELNUT = Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUT);
+
+	@Test
+	public void testReservationIsAllOrNothing() {
+		IngredientInventory inventory = new IngredientInventory(10);
+		inventory.restock(Ingredient.MILK_CHOCOLATE, 10);
+		UUID orderId = UUID.randomUUID();
+
+		inventory.reserve(orderId, CHOCOLATE_HAZELNUT, 8);
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+				() -> inventory.reserve(orderId, CHOCOLATE_HAZELNUT, 3));
+
+		assertTrue(e.getMessage().contains("Hazelnut"));
+		assertEquals(12, inventory.getAvailable(Ingredient.MILK_CHOCOLATE), "Milk chocolate taken first is given back");
+		assertEquals(2, inventory.getAvailable(Ingredient.HAZELNUT));
+		assertEquals(8, inventory.getReserved(orderId, Ingredient.HAZELNUT));
+		assertEquals(10, inventory.getAvailable(Ingredient.WHIPPED_CREAM));
+
+		inventory.release(orderId, CHOCOLATE_HAZELNUT, 20);
+		assertEquals(20, inventory.getAvailable(Ingredient.MILK_CHOCOLATE), "Only held units are given back");
+		assertEquals(0, inventory.getReserved(Ingredient.MILK_CHOCOLATE));
+	}
+
+	@Test
+	public void testServicesReserveReleaseAndConsume() {
+		IngredientInventory inventory = new IngredientInventory(5);
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		orderService.setInventory(inventory);
+		pancakeService.setInventory(inventory);
+
+		Order delivered = orderService.createOrder(1, 101);
+		pancakeService.addPancakes(delivered, new RecipePancake(Recipe.of(Ingredient.DARK_CHOCOLATE)), 2);
+		pancakeService.addPancakes(delivered, new RecipePancake(CHOCOLATE_HAZELNUT), 2);
+		pancakeService.removePancakes(delivered.getId(), 3, orderService.getOrderRepository());
+		assertEquals(5, inventory.getAvailable(Ingredient.DARK_CHOCOLATE), "Removed pancakes give back their ingredients");
+		assertEquals(4, inventory.getAvailable(Ingredient.HAZELNUT));
+
+		assertThrows(IllegalStateException.class,
+				() -> pancakeService.addPancakes(delivered, new RecipePancake(CHOCOLATE_HAZELNUT), 5));
+		assertEquals(1, pancakeService.countPancakes(delivered.getId()), "Rejected pancakes are not added");
+
+		Order cancelled = orderService.createOrder(2, 202);
+		pancakeService.addPancakes(cancelled, new RecipePancake(CHOCOLATE_HAZELNUT), 4);
+		orderService.cancelOrder(cancelled.getId(), 4);
+		assertEquals(4, inventory.getAvailable(Ingredient.HAZELNUT), "Cancelling gives back the ingredients");
+
+		orderService.prepareOrder(delivered.getId());
+		new DeliveryService(pancakeService, orderService).deliverOrder(delivered.getId());
+		assertEquals(OrderStatus.DELIVERED, delivered.getStatus());
+		assertEquals(1, inventory.getConsumed(Ingredient.HAZELNUT));
+		assertEquals(0, inventory.getReserved(Ingredient.HAZELNUT));
+		assertEquals(4, inventory.getAvailable(Ingredient.HAZELNUT));
+	}
+
+	@Test
+	public void testConcurrentReservationsNeverOversell() throws Exception {
+		int stock = 10_000;
+		int threads = 200;
+		IngredientInventory inventory = new IngredientInventory(stock);
+		Recipe[] recipes = {CHOCOLATE_HAZELNUT, Recipe.of(Ingredient.HAZELNUT, Ingredient.WHIPPED_CREAM),
+				Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.WHIPPED_CREAM, Ingredient.DARK_CHOCOLATE)};
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger reservedPancakes = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				start.await();
+				UUID orderId = UUID.randomUUID();
+				for (int i = 0; i < 200; i++) {
+					Recipe recipe = recipes[(thread + i) % recipes.length];
+					try {
+						inventory.reserve(orderId, recipe, 3);
+						reservedPancakes.addAndGet(3);
+						if (i % 4 == 0) {
+							inventory.release(orderId, recipe, 3);
+							reservedPancakes.addAndGet(-3);
+						}
+					} catch (IllegalStateException e) {
+						// Out of stock
+					}
+				}
+				if (thread % 2 == 0) {
+					inventory.consumeOrder(orderId);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		for (Ingredient ingredient : Ingredient.values()) {
+			long available = inventory.getAvailable(ingredient);
+			assertTrue(available >= 0, ingredient + " oversold");
+			assertEquals(stock, available + inventory.getReserved(ingredient) + inventory.getConsumed(ingredient),
+					ingredient + " units are conserved");
+		}
+		assertTrue(reservedPancakes.get() > 0);
+	}
+}
@@ -0,0 +1,128 @@
+package org.pancakelab.ipc;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Minimal blocking client of the {@link OrderProtocol}, used by the tests and benchmarks.
+ *
+ * <p>Requests are buffered by {@link #send} and written by {@link #flush}, so several requests can be
+ * pipelined before their responses are read with {@link #receive}.</p>
+ */
+public class OrderSocketClient implements AutoCloseable {
+
+	/**
+	 * A response frame.
+	 *
+	 * @param status    the response status
+	 * @param requestId the ID of the request answered
+	 * @param payload   the payload, only valid until the next call to {@link #receive}
+	 */
+	public record Response(byte status, int requestId, ByteBuffer payload) {
+
+		/**
+		 * Reads an order ID from the payload.
+		 */
+		public UUID readId() {
+			return new UUID(payload.getLong(), payload.getLong());
+		}
+
+		/**
+		 * Reads the error message of a failed response.
+		 */
+		public String errorMessage() {
+			byte[] text = new byte[payload.get() & 0xFF];
+			payload.get(text);
+			return new String(text, StandardCharsets.UTF_8);
+		}
+	}
+
+	private final SocketChannel channel;
+	private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+	private final ByteBuffer in = ByteBuffer.allocateDirect(4 + OrderProtocol.MAX_FRAME_LENGTH);
+	private int nextRequestId;
+
+	/**
+	 * Connects to the server listening on the given socket file.
+	 */
+	public OrderSocketClient(Path path) throws IOException {
+		channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+		channel.connect(UnixDomainSocketAddress.of(path));
+		in.flip();
+	}
+
+	/**
+	 * Buffers a request; {@code payload} writes its payload.
+	 *
+	 * @return the request ID
+	 */
+	public int send(byte opcode, Consumer<ByteBuffer> payload) throws IOException {
+		if (out.remaining() < 1024) {
+			flush();
+		}
+		int requestId = nextRequestId++;
+		int start = out.position();
+		out.putInt(0).put(opcode).putInt(requestId);
+		payload.accept(out);
+		out.putInt(start, out.position() - start - 4);
+		return requestId;
+	}
+
+	/**
+	 * Writes the buffered requests.
+	 */
+	public void flush() throws IOException {
+		out.flip();
+		while (out.hasRemaining()) {
+			channel.write(out);
+		}
+		out.clear();
+	}
+
+	/**
+	 * Reads the next response, waiting for it if needed.
+	 */
+	public Response receive() throws IOException {
+		while (in.remaining() < 4 || in.remaining() < 4 + in.getInt(in.position())) {
+			in.compact();
+			if (channel.read(in) < 0) {
+				throw new IOException("Connection closed by the server");
+			}
+			in.flip();
+		}
+		int length = in.getInt();
+		byte status = in.get();
+		int requestId = in.getInt();
+		ByteBuffer payload = in.slice(in.position(), length - OrderProtocol.HEADER_LENGTH);
+		in.position(in.position() + length - OrderProtocol.HEADER_LENGTH);
+		return new Response(status, requestId, payload);
+	}
+
+	/**
+	 * Sends one request and waits for its response.
+	 */
+	public Response call(byte opcode, Consumer<ByteBuffer> payload) throws IOException {
+		send(opcode, payload);
+		flush();
+		return receive();
+	}
+
+	/**
+	 * Writes an order ID to a request payload.
+	 */
+	public static void putId(ByteBuffer buffer, UUID orderId) {
+		buffer.putLong(orderId.getMostSignificantBits()).putLong(orderId.getLeastSignificantBits());
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
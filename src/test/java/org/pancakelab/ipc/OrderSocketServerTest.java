@@ -0,0 +1,199 @@
+package org.pancakelab.ipc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderSocketServerTest {
+
+	@TempDir
+	Path dir;
+
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private OrderPipeline pipeline;
+	private OrderSocketServer server;
+	private OrderSocketClient client;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, new DeliveryService(pancakeService, orderService)),
+				orderService::findOrderById, 1, 16);
+		server = new OrderSocketServer(orderService, pancakeService, pipeline, dir.resolve("orders.sock"));
+		server.start();
+		client = new OrderSocketClient(server.getPath());
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		client.close();
+		server.close();
+		pipeline.close();
+	}
+
+	private UUID createOrder(int building, int room) throws Exception {
+		OrderSocketClient.Response response = client.call(OrderProtocol.CREATE_ORDER,
+				out -> out.putInt(building).putInt(room));
+		assertEquals(OrderProtocol.OK, response.status());
+		return response.readId();
+	}
+
+	@Test
+	public void testOrderLifecycleOverSocket() throws Exception {
+		UUID orderId = createOrder(3, 12);
+		Recipe recipe = Recipe.of(Ingredient.DARK_CHOCOLATE);
+
+		OrderSocketClient.Response added = client.call(OrderProtocol.ADD_PANCAKES,
+				out -> OrderSocketClient.putId(out, orderId));
+		assertEquals(OrderProtocol.BAD_REQUEST, added.status(), "A request without recipe and count is truncated");
+
+		added = client.call(OrderProtocol.ADD_PANCAKES, out -> {
+			OrderSocketClient.putId(out, orderId);
+			out.put((byte) recipe.getMask()).putInt(3);
+		});
+		assertEquals(OrderProtocol.OK, added.status());
+		assertEquals(3, added.payload().getInt());
+
+		OrderSocketClient.Response removed = client.call(OrderProtocol.REMOVE_PANCAKES, out -> {
+			OrderSocketClient.putId(out, orderId);
+			out.putInt(1);
+		});
+		assertEquals(2, removed.payload().getInt());
+
+		ByteBuffer view = client.call(OrderProtocol.VIEW_ORDER, out -> OrderSocketClient.putId(out, orderId)).payload();
+		assertEquals(OrderStatus.CREATED.ordinal(), view.get());
+		assertEquals(3, view.getInt());
+		assertEquals(12, view.getInt());
+		assertEquals(2, view.getInt());
+		assertEquals(2 * recipe.getPrice(), view.getDouble(), 1e-9);
+		assertEquals(1, view.getShort());
+		assertEquals(recipe.getMask(), view.get());
+		assertEquals(recipe.getPrice(), view.getDouble(), 1e-9);
+		assertEquals(2, view.getInt());
+
+		assertEquals(OrderProtocol.OK,
+				client.call(OrderProtocol.CONFIRM_ORDER, out -> OrderSocketClient.putId(out, orderId)).status());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (orderService.getOrderRepository().contains(orderId) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertFalse(orderService.getOrderRepository().contains(orderId), "Delivered orders are removed");
+	}
+
+	@Test
+	public void testPipelinedRequestsAreAnsweredInOrder() throws Exception {
+		int count = 5_000;
+		for (int i = 0; i < count; i++) {
+			int room = i;
+			client.send(OrderProtocol.CREATE_ORDER, out -> out.putInt(1).putInt(room));
+		}
+		client.flush();
+		for (int i = 0; i < count; i++) {
+			OrderSocketClient.Response response = client.receive();
+			assertEquals(OrderProtocol.OK, response.status());
+			assertEquals(i, response.requestId());
+		}
+		assertEquals(count, orderService.countOrders(OrderStatus.CREATED));
+
+		ByteBuffer list = client.call(OrderProtocol.LIST_BY_STATUS,
+				out -> out.put((byte) OrderStatus.CREATED.ordinal()).putInt(10)).payload();
+		assertEquals(count, list.getInt());
+		assertEquals(10, list.getInt());
+		assertEquals(10 * 16, list.remaining());
+	}
+
+	@Test
+	public void testErrorsKeepTheConnectionUsable() throws Exception {
+		UUID unknown = UUID.randomUUID();
+		OrderSocketClient.Response response = client.call(OrderProtocol.VIEW_ORDER,
+				out -> OrderSocketClient.putId(out, unknown));
+		assertEquals(OrderProtocol.NOT_FOUND, response.status());
+		assertTrue(response.errorMessage().contains(unknown.toString()));
+
+		assertEquals(OrderProtocol.UNKNOWN_OPCODE, client.call((byte) 99, out -> { }).status());
+		assertEquals(OrderProtocol.BAD_REQUEST,
+				client.call(OrderProtocol.LIST_BY_STATUS, out -> out.put((byte) 42).putInt(1)).status());
+
+		UUID orderId = createOrder(1, 1);
+		assertEquals(OrderProtocol.BAD_REQUEST, client.call(OrderProtocol.ADD_PANCAKES, out -> {
+			OrderSocketClient.putId(out, orderId);
+			out.put((byte) 1).putInt(0);
+		}).status());
+		client.call(OrderProtocol.CANCEL_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		assertEquals(OrderProtocol.CONFLICT,
+				client.call(OrderProtocol.CONFIRM_ORDER, out -> OrderSocketClient.putId(out, orderId)).status());
+	}
+
+	@Test
+	public void testOrderIsConfirmedOnce() throws Exception {
+		UUID orderId = createOrder(1, 1);
+		client.send(OrderProtocol.CONFIRM_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		client.send(OrderProtocol.CONFIRM_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		client.flush();
+
+		assertEquals(OrderProtocol.OK, client.receive().status());
+		byte second = client.receive().status();
+		// In flight the order is a conflict; once completed and removed it is not found
+		assertTrue(second == OrderProtocol.CONFLICT || second == OrderProtocol.NOT_FOUND, "Status " + second);
+	}
+
+	@Test
+	public void testViewingAnOrderTooLargeForOneFrameIsRejected() throws Exception {
+		UUID orderId = createOrder(1, 1);
+		Recipe[] recipes = {Recipe.of(Ingredient.DARK_CHOCOLATE), Recipe.of(Ingredient.HAZELNUT)};
+		for (int i = 0; i <= OrderProtocol.MAX_VIEW_ITEMS; i++) {
+			pancakeService.addPancakes(orderService.findOrderById(orderId), new RecipePancake(recipes[i % 2]), 1);
+		}
+
+		OrderSocketClient.Response view = client.call(OrderProtocol.VIEW_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		assertEquals(OrderProtocol.CONFLICT, view.status());
+
+		pancakeService.removePancakes(orderId, 1, orderService.getOrderRepository());
+		view = client.call(OrderProtocol.VIEW_ORDER, out -> OrderSocketClient.putId(out, orderId));
+		assertEquals(OrderProtocol.OK, view.status());
+		view.payload().position(1 + 4 + 4 + 4 + 8);
+		assertEquals(OrderProtocol.MAX_VIEW_ITEMS, view.payload().getShort());
+	}
+
+	@Test
+	public void testConnectionsBeyondTheLimitAreClosed() throws Exception {
+		try (OrderSocketServer limited = new OrderSocketServer(orderService, pancakeService, pipeline,
+				dir.resolve("limited.sock"), 1);
+			 OrderSocketClient first = new OrderSocketClient(limited.getPath());
+			 OrderSocketClient second = new OrderSocketClient(limited.getPath())) {
+			limited.start();
+
+			assertEquals(OrderProtocol.OK, first.call(OrderProtocol.CREATE_ORDER, out -> out.putInt(1).putInt(1)).status());
+			assertThrows(IOException.class, () -> second.call(OrderProtocol.CREATE_ORDER, out -> out.putInt(1).putInt(2)));
+		}
+	}
+
+	@Test
+	public void testCloseRemovesTheSocketFile() throws Exception {
+		assertTrue(Files.exists(server.getPath()));
+		server.close();
+		assertFalse(Files.exists(server.getPath()));
+	}
+}
@@ -0,0 +1,127 @@
+package org.pancakelab.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointerTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testRecoveryLoadsSnapshotAndReplaysTail() throws Exception {
+		Path path = directory.resolve("orders.journal");
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		Order prepared;
+		Order open;
+		try (FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, orderService, pancakeService);
+			 Checkpointer checkpointer = new Checkpointer(journal, orderService, pancakeService)) {
+			for (int i = 0; i < 100; i++) {
+				Order order = orderService.createOrder(1, i);
+				pancakeService.addPancakes(order, new BasePancake(), 3);
+				orderService.cancelOrder(order.getId(), 3);
+			}
+			prepared = orderService.createOrder(2, 202);
+			pancakeService.addPancakes(prepared, pancakeService.createPancake(List.of("1", "2"), prepared), 4);
+			orderService.prepareOrder(prepared.getId());
+			journal.flush();
+			long journalSize = Files.size(path);
+
+			long position = checkpointer.checkpoint();
+
+			assertEquals(journal.getPosition(), position);
+			assertTrue(Files.size(path) < journalSize);
+			open = orderService.createOrder(3, 303);
+			pancakeService.addPancakes(open, new BasePancake(), 2);
+		}
+
+		OrderService restoredOrders = new OrderService();
+		PancakeService restoredPancakes = new PancakeService();
+		FileJournal restoredJournal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, restoredOrders, restoredPancakes);
+		try (restoredJournal) {
+			assertEquals(102, restoredOrders.getAllOrders().size());
+			assertEquals(100, restoredOrders.countOrders(OrderStatus.CANCELLED));
+			assertEquals(OrderStatus.PREPARED, restoredOrders.getOrderStatus(prepared.getId()));
+			assertEquals(pancakeService.viewOrder(prepared.getId()), restoredPancakes.viewOrder(prepared.getId()));
+			assertEquals(OrderStatus.CREATED, restoredOrders.getOrderStatus(open.getId()));
+			assertEquals(2, restoredPancakes.countPancakes(open.getId()));
+		}
+	}
+
+	@Test
+	public void testCompactedJournalCannotBeReplayedFromStart() {
+		Path path = directory.resolve("orders.journal");
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		try (FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, orderService, pancakeService);
+			 Checkpointer checkpointer = new Checkpointer(journal, orderService, pancakeService)) {
+			orderService.createOrder(1, 101);
+			checkpointer.checkpoint();
+		}
+
+		assertThrows(IllegalStateException.class, () -> FileJournal.replay(path, OrderJournal.NONE));
+	}
+
+	@Test
+	public void testCheckpointsDuringConcurrentChangesLoseNothing() throws Exception {
+		Path path = directory.resolve("orders.journal");
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		int threads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		AtomicBoolean running = new AtomicBoolean(true);
+		try (FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, orderService, pancakeService);
+			 Checkpointer checkpointer = new Checkpointer(journal, orderService, pancakeService)) {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				writers.add(executor.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						Order order = orderService.createOrder(1, i);
+						pancakeService.addPancakes(order, new BasePancake(), 1 + i % 3);
+						if (i % 2 == 0) {
+							pancakeService.removePancakes(order.getId(), 1, orderService.getOrderRepository());
+							orderService.prepareOrder(order.getId());
+						}
+					}
+				}));
+			}
+			Future<?> checkpoints = executor.submit(() -> {
+				while (running.get()) {
+					checkpointer.checkpoint();
+				}
+			});
+			for (Future<?> writer : writers) {
+				writer.get(30, TimeUnit.SECONDS);
+			}
+			running.set(false);
+			checkpoints.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+
+		OrderService restoredOrders = new OrderService();
+		PancakeService restoredPancakes = new PancakeService();
+		FileJournal restoredJournal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, restoredOrders, restoredPancakes);
+		try (restoredJournal) {
+			assertEquals(orderService.getAllOrders().size(), restoredOrders.getAllOrders().size());
+			for (Order order : orderService.getAllOrders()) {
+				assertEquals(order.getStatus(), restoredOrders.getOrderStatus(order.getId()));
+				assertEquals(pancakeService.countPancakes(order.getId()), restoredPancakes.countPancakes(order.getId()));
+			}
+		}
+	}
+}
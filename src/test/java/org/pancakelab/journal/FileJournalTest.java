@@ -0,0 +1,209 @@
+package org.pancakelab.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
+import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testRecoveryRestoresOrdersAndPancakes() {
+		Path path = directory.resolve("orders.journal");
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		DeliveryService deliveryService = new DeliveryService(pancakeService, orderService);
+		Order open;
+		Order cancelled;
+		Order delivered;
+		FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.ALWAYS, orderService, pancakeService);
+		try (journal) {
+			open = orderService.createOrder(1, 101);
+			Pancake pancake = pancakeService.createPancake(List.of("1", "3"), open);
+			pancakeService.addPancakes(open, pancake, 3);
+			pancakeService.addPancakes(open, new BasePancake(), 2);
+			pancakeService.removePancakes(open.getId(), 1, orderService.getOrderRepository());
+
+			cancelled = orderService.createOrder(2, 202);
+			orderService.cancelOrder(cancelled.getId(), 0);
+
+			delivered = orderService.createOrder(3, 303);
+			pancakeService.addPancakes(delivered, new BasePancake(), 1);
+			orderService.prepareOrder(delivered.getId());
+			deliveryService.deliverOrder(delivered.getId());
+		}
+
+		OrderService restoredOrders = new OrderService();
+		PancakeService restoredPancakes = new PancakeService();
+		FileJournal restoredJournal = JournalRecovery.recover(path, FileJournal.SyncPolicy.ALWAYS, restoredOrders, restoredPancakes);
+		try (restoredJournal) {
+			assertEquals(OrderStatus.CREATED, restoredOrders.getOrderStatus(open.getId()));
+			assertEquals(pancakeService.viewOrder(open.getId()), restoredPancakes.viewOrder(open.getId()));
+			assertEquals(OrderStatus.CANCELLED, restoredOrders.getOrderStatus(cancelled.getId()));
+			assertEquals(OrderStatus.DELIVERED, restoredOrders.getOrderStatus(delivered.getId()));
+			assertEquals(0, restoredPancakes.countPancakes(delivered.getId()));
+
+			Order restored = restoredOrders.findOrderById(open.getId());
+			assertEquals(1, restored.getBuilding());
+			assertEquals(101, restored.getRoom());
+		}
+	}
+
+	@Test
+	public void testTornTailIsTruncated() throws IOException {
+		Path path = directory.resolve("orders.journal");
+		UUID orderId = UUID.randomUUID();
+		try (FileJournal journal = new FileJournal(path, FileJournal.SyncPolicy.ALWAYS, 50)) {
+			journal.orderCreated(orderId, 1, 101);
+			journal.statusChanged(orderId, OrderStatus.PREPARED);
+		}
+		long intactSize = Files.size(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(intactSize - 3);
+		}
+
+		List<String> replayed = new ArrayList<>();
+		long records = FileJournal.replay(path, new RecordingJournal(replayed));
+
+		assertEquals(1, records);
+		assertEquals(List.of("created " + orderId), replayed);
+		assertTrue(Files.size(path) < intactSize - 3);
+	}
+
+	@Test
+	public void testConcurrentAppendsAreAllReplayed() throws Exception {
+		Path path = directory.resolve("orders.journal");
+		int threads = 8;
+		int perThread = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (FileJournal journal = new FileJournal(path, FileJournal.SyncPolicy.ALWAYS, 50, 1024)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < perThread; i++) {
+						journal.orderCreated(UUID.randomUUID(), 1, i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		List<String> replayed = new ArrayList<>();
+		assertEquals(threads * perThread, FileJournal.replay(path, new RecordingJournal(replayed)));
+		assertEquals(threads * perThread, replayed.size());
+	}
+
+	@Test
+	public void testRacingAddsAndStatusChangesRecoverAsApplied() throws Exception {
+		Path path = directory.resolve("orders.journal");
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		List<Order> orders = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		FileJournal journal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, orderService, pancakeService);
+		try (journal) {
+			for (int i = 0; i < 500; i++) {
+				orders.add(orderService.createOrder(1, i));
+			}
+			List<Future<?>> futures = new ArrayList<>();
+			for (Order order : orders) {
+				futures.add(executor.submit(() -> {
+					try {
+						pancakeService.addPancakes(order, new BasePancake(), 2);
+					} catch (IllegalStateException e) {
+						// Prepared or cancelled first
+					}
+				}));
+				futures.add(executor.submit(() -> {
+					if (order.getRoom() % 2 == 0) {
+						orderService.prepareOrder(order.getId());
+					} else {
+						orderService.cancelOrder(order.getId(), 0);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		OrderService restoredOrders = new OrderService();
+		PancakeService restoredPancakes = new PancakeService();
+		FileJournal restoredJournal = JournalRecovery.recover(path, FileJournal.SyncPolicy.NONE, restoredOrders, restoredPancakes);
+		try (restoredJournal) {
+			for (Order order : orders) {
+				assertEquals(order.getStatus(), restoredOrders.getOrderStatus(order.getId()));
+				assertEquals(pancakeService.countPancakes(order.getId()), restoredPancakes.countPancakes(order.getId()),
+						"pancakes of " + order.getId());
+			}
+		}
+	}
+
+	/**
+	 * Records the replayed changes as strings.
+	 */
+	private static class RecordingJournal implements OrderJournal {
+
+		private final List<String> changes;
+
+		RecordingJournal(List<String> changes) {
+			this.changes = changes;
+		}
+
+		@Override
+		public void orderCreated(UUID orderId, int building, int room) {
+			changes.add("created " + orderId);
+		}
+
+		@Override
+		public void pancakesAdded(UUID orderId, Recipe recipe, double price, int count) {
+			changes.add("added " + orderId);
+		}
+
+		@Override
+		public void pancakesRemoved(UUID orderId, int count) {
+			changes.add("removed " + orderId);
+		}
+
+		@Override
+		public void pancakesCleared(UUID orderId) {
+			changes.add("cleared " + orderId);
+		}
+
+		@Override
+		public void statusChanged(UUID orderId, OrderStatus status) {
+			changes.add(status + " " + orderId);
+		}
+
+		@Override
+		public void orderDeleted(UUID orderId) {
+			changes.add("deleted " + orderId);
+		}
+	}
+}
@@ -0,0 +1,343 @@
+package org.pancakelab.load;
+
+import org.pancakelab.metrics.LatencyHistogram;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.model.pancake.RecipePancake;
+import org.pancakelab.repository.OrderArchive;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderRetention;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives the order services with a synthetic mix of operations from many client threads, for capacity
+ * and soak tests.
+ *
+ * <p>Operations arrive at a constant rate (open loop): each client has a fixed schedule of intended start
+ * times and measures every latency from the intended start rather than from when it actually got to run.
+ * When the services stall, the operations queued up behind the stall are charged with the wait, as real
+ * clients arriving at that rate would be, instead of the stall hiding itself by slowing the load down
+ * (coordinated omission).</p>
+ *
+ * <p>Each client owns the orders it creates, so operations never race on an order and every failure is a
+ * real one. Cancelled and completed orders are archived by an {@link OrderRetention} as in the application,
+ * so the heap reported after each GC should stay flat over a long soak; steady growth points to a leak.</p>
+ *
+ * Run it through the {@code load} profile, for example:
+ * <pre>
+ * mvn -Pload test -Dload.args="threads=8 rate=20000 duration=PT4H mix=create:2,add:5,remove:1,cancel:1,deliver:2"
+ * </pre>
+ */
+public class LoadGenerator {
+
+	/**
+	 * The operations of the load mix.
+	 */
+	public enum Op {
+		CREATE, ADD, REMOVE, CANCEL, DELIVER
+	}
+
+	/** Most open orders a client keeps before it finishes some instead of creating more */
+	private static final int MAX_OPEN_ORDERS_PER_CLIENT = 256;
+
+	private static final Recipe[] RECIPES = {
+			Recipe.EMPTY,
+			Recipe.of(Ingredient.MILK_CHOCOLATE),
+			Recipe.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM),
+			Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUT)
+	};
+
+	/**
+	 * Settings of a load run.
+	 *
+	 * @param threads        the number of client threads
+	 * @param rate           the total operations per second over all clients
+	 * @param duration       how long to generate load
+	 * @param reportInterval the time between interval reports
+	 * @param retention      how long finished orders stay in the services before they are archived
+	 * @param mix            the relative weight of each operation, indexed by ordinal
+	 */
+	public record Config(int threads, int rate, Duration duration, Duration reportInterval, Duration retention,
+						 int[] mix) {
+
+		/**
+		 * Parses settings written as {@code key=value} arguments; missing keys keep their default.
+		 *
+		 * @param args the arguments
+		 * @return the settings
+		 * @throws IllegalArgumentException if an argument is unknown or malformed
+		 */
+		public static Config parse(String... args) {
+			int threads = 4;
+			int rate = 10_000;
+			Duration duration = Duration.ofMinutes(1);
+			Duration reportInterval = Duration.ofSeconds(10);
+			Duration retention = Duration.ofSeconds(30);
+			int[] mix = {2, 5, 1, 1, 2};
+			for (String arg : args) {
+				int separator = arg.indexOf('=');
+				if (separator < 0) {
+					throw new IllegalArgumentException("Expected key=value: " + arg);
+				}
+				String value = arg.substring(separator + 1);
+				switch (arg.substring(0, separator)) {
+					case "threads" -> threads = Integer.parseInt(value);
+					case "rate" -> rate = Integer.parseInt(value);
+					case "duration" -> duration = Duration.parse(value);
+					case "report" -> reportInterval = Duration.parse(value);
+					case "retention" -> retention = Duration.parse(value);
+					case "mix" -> mix = parseMix(value);
+					default -> throw new IllegalArgumentException("Unknown setting: " + arg);
+				}
+			}
+			if (threads <= 0 || rate <= 0 || duration.isNegative() || reportInterval.isZero() || reportInterval.isNegative()) {
+				throw new IllegalArgumentException("Invalid load settings");
+			}
+			return new Config(threads, rate, duration, reportInterval, retention, mix);
+		}
+
+		private static int[] parseMix(String value) {
+			int[] mix = new int[Op.values().length];
+			for (String entry : value.split(",")) {
+				String[] weight = entry.split(":");
+				mix[Op.valueOf(weight[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(weight[1].trim());
+			}
+			if (Arrays.stream(mix).sum() <= 0) {
+				throw new IllegalArgumentException("The mix needs at least one operation");
+			}
+			return mix;
+		}
+	}
+
+	/**
+	 * Outcome of a load run.
+	 *
+	 * @param operations    the operations run
+	 * @param errors        the operations that threw
+	 * @param elapsedNanos  the duration of the run
+	 * @param latencies     the latency of each operation, from its intended start, by operation
+	 * @param heapAfterGc   the heap in use after the last GC at the start and at the end of the run, in bytes
+	 */
+	public record Report(long operations, long errors, long elapsedNanos, Map<Op, LatencyHistogram.Snapshot> latencies,
+						 long[] heapAfterGc) {
+
+		/**
+		 * Returns the operations completed per second.
+		 */
+		public double throughput() {
+			return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Formats the report as a few lines of text.
+		 */
+		public String format() {
+			StringBuilder text = new StringBuilder(String.format("%d operations in %.1f s, %.0f ops/s, %d errors, "
+							+ "heap after GC %d MB -> %d MB%n", operations, elapsedNanos / 1e9, throughput(), errors,
+					heapAfterGc[0] >> 20, heapAfterGc[1] >> 20));
+			latencies.forEach((op, latency) -> text.append(formatLatency(op, latency)));
+			return text.toString();
+		}
+	}
+
+	private final Config config;
+	private final OrderService orderService;
+	private final PancakeService pancakeService;
+	private final DeliveryService deliveryService;
+
+	private final Map<Op, LatencyHistogram> totalLatency = new EnumMap<>(Op.class);
+	private final Map<Op, LatencyHistogram> intervalLatency = new EnumMap<>(Op.class);
+	private final LongAdder operations = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+
+	/**
+	 * Constructs a generator driving new, empty services.
+	 *
+	 * @param config the settings of the run
+	 */
+	public LoadGenerator(Config config) {
+		this.config = config;
+		this.orderService = new OrderService();
+		this.pancakeService = new PancakeService();
+		this.deliveryService = new DeliveryService(pancakeService, orderService);
+		for (Op op : Op.values()) {
+			totalLatency.put(op, new LatencyHistogram());
+			intervalLatency.put(op, new LatencyHistogram());
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		Config config = Config.parse(args);
+		System.out.printf("Load: %d threads, %d ops/s, %s, mix %s%n", config.threads(), config.rate(),
+				config.duration(), Arrays.toString(config.mix()));
+		Report report = new LoadGenerator(config).run(System.out::print);
+		System.out.print(report.format());
+	}
+
+	/**
+	 * Generates load for the configured duration, printing an interval report every report interval.
+	 *
+	 * @param intervalReports receives the interval reports
+	 * @return the report of the whole run
+	 * @throws InterruptedException if interrupted while waiting for the clients
+	 */
+	public Report run(Consumer<String> intervalReports) throws InterruptedException {
+		long heapAtStart = heapAfterFullGc();
+		OrderRetention retention = new OrderRetention(orderService, pancakeService, new OrderArchive(10_000),
+				config.retention().toMillis(), TimeUnit.MILLISECONDS);
+		retention.start(Math.max(1, config.retention().toMillis() / 4), TimeUnit.MILLISECONDS);
+		ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+		long intervalNanos = config.reportInterval().toNanos();
+		reporter.scheduleAtFixedRate(() -> intervalReports.accept(intervalReport(intervalNanos)),
+				intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+		long start = System.nanoTime();
+		long end = start + config.duration().toNanos();
+		// Each client runs every threads-th slot of the overall schedule
+		long periodNanos = Math.max(1, TimeUnit.SECONDS.toNanos(config.threads()) / config.rate());
+		Thread[] clients = new Thread[config.threads()];
+		for (int i = 0; i < clients.length; i++) {
+			long firstStart = start + i * periodNanos / clients.length;
+			clients[i] = new Thread(() -> runClient(firstStart, periodNanos, end), "load-client-" + i);
+			clients[i].start();
+		}
+		for (Thread client : clients) {
+			client.join();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		reporter.shutdownNow();
+		retention.close();
+		Map<Op, LatencyHistogram.Snapshot> latencies = new EnumMap<>(Op.class);
+		totalLatency.forEach((op, histogram) -> latencies.put(op, histogram.snapshot()));
+		return new Report(operations.sum(), errors.sum(), elapsed, latencies, new long[]{heapAtStart, heapAfterFullGc()});
+	}
+
+	private void runClient(long firstStart, long periodNanos, long end) {
+		SplittableRandom random = new SplittableRandom();
+		ArrayDeque<Order> open = new ArrayDeque<>();
+		int totalWeight = Arrays.stream(config.mix()).sum();
+		for (long intended = firstStart; intended < end; intended += periodNanos) {
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Op op = pick(random.nextInt(totalWeight), open);
+			try {
+				run(op, open, random);
+			} catch (RuntimeException e) {
+				errors.increment();
+			}
+			long latency = System.nanoTime() - intended;
+			totalLatency.get(op).record(latency);
+			intervalLatency.get(op).record(latency);
+			operations.increment();
+		}
+	}
+
+	/**
+	 * Picks the operation for a roll of the weighted mix, creating an order when there is none to act on,
+	 * and finishing one when the client holds too many.
+	 */
+	private Op pick(int roll, ArrayDeque<Order> open) {
+		int[] mix = config.mix();
+		Op op = Op.CREATE;
+		for (Op candidate : Op.values()) {
+			roll -= mix[candidate.ordinal()];
+			if (roll < 0) {
+				op = candidate;
+				break;
+			}
+		}
+		if (open.isEmpty()) {
+			return Op.CREATE;
+		}
+		if (op == Op.CREATE && open.size() >= MAX_OPEN_ORDERS_PER_CLIENT) {
+			return Op.DELIVER;
+		}
+		return op;
+	}
+
+	private void run(Op op, ArrayDeque<Order> open, SplittableRandom random) {
+		switch (op) {
+			case CREATE -> open.addLast(orderService.createOrder(random.nextInt(1, 21), random.nextInt(100, 500)));
+			case ADD -> {
+				Order order = open.peekFirst();
+				open.addLast(open.removeFirst());
+				pancakeService.addPancakes(order, new RecipePancake(RECIPES[random.nextInt(RECIPES.length)]),
+						random.nextInt(1, 4));
+			}
+			case REMOVE -> {
+				Order order = open.peekFirst();
+				open.addLast(open.removeFirst());
+				pancakeService.removePancakes(order.getId(), 1, orderService.getOrderRepository());
+			}
+			case CANCEL -> {
+				Order order = open.removeFirst();
+				orderService.cancelOrder(order.getId(), pancakeService.countPancakes(order.getId()));
+			}
+			case DELIVER -> {
+				Order order = open.removeFirst();
+				orderService.prepareOrder(order.getId());
+				deliveryService.deliverOrder(order.getId());
+				orderService.completeOrder(order.getId());
+			}
+		}
+	}
+
+	private String intervalReport(long intervalNanos) {
+		StringBuilder text = new StringBuilder(String.format("-- %d ops total, %d errors, heap after last GC %d MB, %d live orders%n",
+				operations.sum(), errors.sum(), heapAfterLastGc() >> 20, orderService.getOrderRepository().size()));
+		for (Op op : Op.values()) {
+			LatencyHistogram histogram = intervalLatency.get(op);
+			LatencyHistogram.Snapshot latency = histogram.snapshot();
+			histogram.reset();
+			if (latency.count() > 0) {
+				text.append(String.format("%.0f/s ", latency.count() * 1e9 / intervalNanos)).append(formatLatency(op, latency));
+			}
+		}
+		return text.toString();
+	}
+
+	private static String formatLatency(Op op, LatencyHistogram.Snapshot latency) {
+		return String.format("%-8s count=%d p50=%dus p90=%dus p99=%dus max=%dus%n", op, latency.count(),
+				TimeUnit.NANOSECONDS.toMicros(latency.p50()), TimeUnit.NANOSECONDS.toMicros(latency.p90()),
+				TimeUnit.NANOSECONDS.toMicros(latency.p99()), TimeUnit.NANOSECONDS.toMicros(latency.maxNanos()));
+	}
+
+	/**
+	 * Runs a full collection and returns the heap that survived it.
+	 */
+	private static long heapAfterFullGc() {
+		System.gc();
+		return heapAfterLastGc();
+	}
+
+	/**
+	 * Returns the heap in use right after the last collection of each heap pool, which, unlike the current
+	 * usage, does not include garbage waiting to be collected.
+	 */
+	private static long heapAfterLastGc() {
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage afterGc = pool.getCollectionUsage();
+			if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+				used += afterGc.getUsed();
+			}
+		}
+		return used;
+	}
+}
@@ -0,0 +1,38 @@
+package org.pancakelab.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorTest {
+
+	@Test
+	public void testParseConfig() {
+		LoadGenerator.Config config = LoadGenerator.Config.parse("threads=2", "rate=500", "duration=PT2S",
+				"mix=create:1,deliver:3");
+
+		assertEquals(2, config.threads());
+		assertEquals(500, config.rate());
+		assertArrayEquals(new int[]{1, 0, 0, 0, 3}, config.mix());
+		assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Config.parse("speed=1"));
+	}
+
+	@Test
+	public void testShortRunDrivesEveryOperation() throws InterruptedException {
+		List<String> intervals = new ArrayList<>();
+		LoadGenerator.Config config = LoadGenerator.Config.parse("threads=2", "rate=2000", "duration=PT1S",
+				"report=PT0.5S", "retention=PT0.2S");
+
+		LoadGenerator.Report report = new LoadGenerator(config).run(intervals::add);
+
+		assertEquals(0, report.errors());
+		assertTrue(report.operations() >= 1500, "operations: " + report.operations());
+		for (LoadGenerator.Op op : LoadGenerator.Op.values()) {
+			assertTrue(report.latencies().get(op).count() > 0, op.name());
+		}
+		assertFalse(intervals.isEmpty());
+		assertTrue(report.format().contains("ops/s"));
+	}
+}
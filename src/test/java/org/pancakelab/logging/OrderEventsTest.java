@@ -0,0 +1,65 @@
+package org.pancakelab.logging;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderEventsTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	public void testOrderLifecycleIsRecorded() throws Exception {
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		PancakeOrderProcess process = new PancakeOrderProcess(pancakeService, orderService,
+				new DeliveryService(pancakeService, orderService));
+		Path file = dir.resolve("orders.jfr");
+
+		Order order;
+		try (Recording recording = new Recording()) {
+			recording.enable("org.pancakelab.*");
+			recording.start();
+			order = orderService.createOrder(3, 303);
+			pancakeService.addPancakes(order, new BasePancake(), 4);
+			pancakeService.removePancakes(order.getId(), 1, orderService.getOrderRepository());
+			process.processOrder(order.getId());
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> order.getId().toString().equals(event.getString("orderId")))
+				.collect(Collectors.toList());
+		Map<String, RecordedEvent> byName = new HashMap<>();
+		for (RecordedEvent event : events) {
+			String name = event.getEventType().getName();
+			byName.put(name.equals("org.pancakelab.OrderProcessStage") ? name + "." + event.getString("stage") : name, event);
+		}
+
+		assertEquals(303, byName.get("org.pancakelab.OrderCreated").getInt("room"));
+		assertEquals(4, byName.get("org.pancakelab.PancakesAdded").getInt("pancakeCount"));
+		assertEquals(1, byName.get("org.pancakelab.PancakesRemoved").getInt("removed"));
+		assertTrue(byName.containsKey("org.pancakelab.OrderPrepared"));
+		assertEquals(3, byName.get("org.pancakelab.OrderDelivered").getInt("pancakeCount"));
+		assertTrue(byName.containsKey("org.pancakelab.OrderCompleted"));
+		assertEquals(3, byName.get("org.pancakelab.OrderProcessStage.deliver").getInt("pancakeCount"));
+		assertEquals(3, byName.get("org.pancakelab.OrderProcessStage.deliver").getInt("building"));
+		assertFalse(byName.get("org.pancakelab.OrderProcessStage.prepare").getDuration().isNegative());
+	}
+}
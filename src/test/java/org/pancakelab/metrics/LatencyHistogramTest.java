@@ -0,0 +1,73 @@
+package org.pancakelab.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBucketsCoverEveryValueWithinPrecision() {
+		for (long value : new long[]{0, 1, 15, 16, 17, 100, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			long highest = LatencyHistogram.highestValueOf(bucket);
+			assertTrue(highest >= value, "bucket of " + value);
+			assertTrue(highest - value <= value / 16, "precision of " + value);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+		}
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+		assertEquals(1000, snapshot.count());
+		assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.maxNanos());
+		assertEquals(500_500, snapshot.mean(), 1);
+		assertEquals(500_000, snapshot.p50(), 500_000 / 16);
+		assertEquals(990_000, snapshot.p99(), 990_000 / 16);
+
+		histogram.reset();
+		assertEquals(0, histogram.snapshot().count());
+	}
+
+	@Test
+	public void testConcurrentRecordsAreAllCounted() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			executor.submit(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					histogram.record(i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(40_000, histogram.snapshot().count());
+		assertEquals(9_999, histogram.snapshot().maxNanos());
+	}
+
+	@Test
+	public void testOperationsArePublishedOverJmx() throws Exception {
+		Operation.CREATE_ORDER.record(System.nanoTime());
+		try (MetricsReporter reporter = new MetricsReporter()) {
+			reporter.registerMBeans();
+			reporter.registerMBeans();
+
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			long count = (Long) server.getAttribute(MetricsReporter.objectName(Operation.CREATE_ORDER), "Count");
+			assertTrue(count >= 1);
+			assertTrue(reporter.report().contains("createOrder"));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package org.pancakelab.model.order;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderIdGeneratorTest {
+
+	@Test
+	public void testTimeOrderedIdsAreVersion7Uuids() {
+		UUID id = OrderIdGenerator.timeOrdered().nextId();
+
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+		long millis = id.getMostSignificantBits() >>> 16;
+		assertTrue(Math.abs(System.currentTimeMillis() - millis) < 10_000);
+	}
+
+	@Test
+	public void testIdsOfOneThreadAreIncreasing() {
+		OrderIdGenerator generator = OrderIdGenerator.timeOrdered();
+		UUID previous = generator.nextId();
+		for (int i = 0; i < 100_000; i++) {
+			UUID next = generator.nextId();
+			assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	public void testConcurrentIdsAreUnique() throws Exception {
+		int threads = 16;
+		int perThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		Set<UUID> ids = ConcurrentHashMap.newKeySet();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < perThread; i++) {
+						ids.add(OrderIdGenerator.timeOrdered().nextId());
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * perThread, ids.size());
+	}
+
+	@Test
+	public void testNewOrdersUseTimeOrderedIds() {
+		assertEquals(7, new Order(1, 101).getId().version());
+	}
+}
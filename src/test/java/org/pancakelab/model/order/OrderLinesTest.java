@@ -0,0 +1,77 @@
+package org.pancakelab.model.order;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.pancake.Recipe;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderLinesTest {
+
+	private final Recipe chocolate = Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.WHIPPED_CREAM);
+	private final Recipe hazelnut = Recipe.of(Ingredient.HAZELNUT);
+
+	@Test
+	public void testConsecutiveSameRecipeAndPriceShareOneLineItem() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 12).add(chocolate, 5, 3).add(hazelnut, 2, 1);
+
+		assertEquals(List.of(new LineItem(chocolate, 5, 15), new LineItem(hazelnut, 2, 1)), lines.getItems());
+		assertEquals(16, lines.getPancakeCount());
+	}
+
+	@Test
+	public void testPancakesKeepTheOrderTheyWereAdded() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 1).add(hazelnut, 2, 1).add(chocolate, 5, 1);
+
+		assertEquals(3, lines.getItems().size());
+		assertEquals(List.of(chocolate.getDescription(), hazelnut.getDescription(), chocolate.getDescription()),
+				lines.getDescriptions());
+		assertEquals(List.of(new LineItem(chocolate, 5, 1)), lines.removeFirst(2).getItems(),
+				"The first two pancakes added are removed");
+	}
+
+	@Test
+	public void testDifferentPriceStartsNewLineItem() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 1).add(chocolate, 4, 1);
+
+		assertEquals(2, lines.getItems().size());
+	}
+
+	@Test
+	public void testRemoveFirstTakesFromTheOldestLineItems() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 3).add(hazelnut, 2, 4);
+
+		OrderLines left = lines.removeFirst(5);
+
+		assertEquals(List.of(new LineItem(hazelnut, 2, 2)), left.getItems());
+		assertEquals(2, left.getPancakeCount());
+		assertEquals(7, lines.getPancakeCount());
+		assertSame(OrderLines.EMPTY, lines.removeFirst(10));
+	}
+
+	@Test
+	public void testItemOfPancakeCountsAcrossLineItems() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 2).add(hazelnut, 2, 1);
+
+		assertEquals(chocolate, lines.itemOfPancake(1).recipe());
+		assertEquals(hazelnut, lines.itemOfPancake(2).recipe());
+		assertThrows(IndexOutOfBoundsException.class, () -> lines.itemOfPancake(3));
+	}
+
+	@Test
+	public void testTotalsFollowEveryChange() {
+		OrderLines lines = OrderLines.EMPTY.add(chocolate, 5, 12).add(hazelnut, 2, 3);
+
+		assertEquals(66, lines.getTotalPrice());
+		assertEquals(12, lines.getIngredientCount(Ingredient.MILK_CHOCOLATE));
+		assertEquals(3, lines.getIngredientCount(Ingredient.HAZELNUT));
+		assertEquals(0, lines.getIngredientCount(Ingredient.DARK_CHOCOLATE));
+
+		OrderLines left = lines.removeFirst(10);
+		assertEquals(16, left.getTotalPrice());
+		assertEquals(2, left.getIngredientCount(Ingredient.WHIPPED_CREAM));
+		assertEquals(0, OrderLines.EMPTY.getTotalPrice());
+	}
+}
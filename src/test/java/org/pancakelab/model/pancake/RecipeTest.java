@@ -0,0 +1,45 @@
+package org.pancakelab.model.pancake;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.Ingredient;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeTest {
+
+	@Test
+	void shouldReturnSameInstanceForSameIngredients() {
+		Recipe recipe = Recipe.of(Ingredient.HAZELNUT, Ingredient.MILK_CHOCOLATE);
+
+		assertSame(recipe, Recipe.EMPTY.with(Ingredient.MILK_CHOCOLATE).with(Ingredient.HAZELNUT));
+		assertSame(recipe, Recipe.of(recipe.getMask()));
+		assertSame(recipe, recipe.with(Ingredient.HAZELNUT));
+	}
+
+	@Test
+	void shouldPrecomputeDescriptionPriceAndIngredients() {
+		Recipe recipe = Recipe.of(Ingredient.HAZELNUT, Ingredient.WHIPPED_CREAM);
+
+		assertEquals("Whipped Cream Hazelnut", recipe.getDescription());
+		assertEquals(4, recipe.getPrice());
+		assertEquals(List.of(Ingredient.WHIPPED_CREAM, Ingredient.HAZELNUT), recipe.getIngredients());
+		assertSame(recipe.getDescription(), recipe.getDescription());
+	}
+
+	@Test
+	void shouldRejectUnknownMask() {
+		assertThrows(IllegalArgumentException.class, () -> Recipe.of(1 << Ingredient.values().length));
+		assertThrows(IllegalArgumentException.class, () -> Recipe.of(-1));
+	}
+
+	@Test
+	void shouldExposeFullRecipeThroughDecorators() {
+		Pancake pancake = new DarkChocolate(new WhippedCream(new BasePancake()));
+
+		assertSame(Recipe.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM), pancake.getRecipe());
+		assertEquals(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM), pancake.ingredients());
+		assertEquals("Dark Chocolate Whipped Cream", pancake.getDescription());
+	}
+}
@@ -0,0 +1,70 @@
+package org.pancakelab.replay;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.pancake.Recipe;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.template.OrderPipeline;
+import org.pancakelab.template.PancakeOrderProcess;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderReplayTest {
+
+	@Test
+	public void testParseCommands() {
+		assertEquals(new OrderCommand(OrderCommand.Type.CREATE, 7, 2, 101, null, 0), OrderCommand.parse("create 7 2 101"));
+		assertEquals(new OrderCommand(OrderCommand.Type.ADD, 7, 0, 0, Recipe.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUT), 12),
+				OrderCommand.parse("\tadd 7  1,4 12 "));
+		assertEquals(Recipe.EMPTY, OrderCommand.parse("add 7 - 1").recipe());
+		assertEquals(OrderCommand.Type.CONFIRM, OrderCommand.parse("confirm 7").type());
+		assertEquals(OrderCommand.Type.CANCEL, OrderCommand.parse("cancel 7").type());
+
+		for (String malformed : List.of("create 7 2", "create 7 2 101 5", "add 7 5 1", "add 7 1,x 2", "add 7 1 0",
+				"confirm", "confirm -1", "confirmed 7", "deliver 7", "create 7 2 99999999999")) {
+			assertNull(OrderCommand.parse(malformed), malformed);
+		}
+		assertTrue(OrderCommand.isBlankOrComment("   "));
+		assertTrue(OrderCommand.isBlankOrComment("# day 1"));
+	}
+
+	@Test
+	public void testReplayRunsOrdersThroughTheServices() throws Exception {
+		OrderService orderService = new OrderService();
+		PancakeService pancakeService = new PancakeService();
+		StringBuilder commands = new StringBuilder("# recorded traffic\n");
+		for (int ref = 0; ref < 100; ref++) {
+			commands.append("create ").append(ref).append(" 1 ").append(100 + ref).append('\n');
+			commands.append("add ").append(ref).append(" 1,3 2\n");
+			commands.append(ref % 10 == 0 ? "cancel " : "confirm ").append(ref).append('\n');
+		}
+		commands.append("add 5 1 1\n");       // already confirmed
+		commands.append("bake 1\n");          // unknown command
+
+		OrderReplay.Report report;
+		try (OrderPipeline pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, new DeliveryService(pancakeService, orderService)),
+				orderService::findOrderById, 2, 16)) {
+			report = new OrderReplay(orderService, pancakeService, pipeline, 32).run(
+					new BufferedReader(new StringReader(commands.toString())));
+		}
+
+		assertEquals(302, report.commands());
+		assertEquals(2, report.rejected());
+		assertEquals(100, report.created());
+		assertEquals(90, report.completed());
+		assertEquals(10, report.cancelled());
+		assertEquals(0, report.failed());
+		assertEquals(100, report.latency().count());
+		assertEquals(10, orderService.countOrders(OrderStatus.CANCELLED));
+		assertTrue(report.ordersPerSecond() > 0);
+		assertTrue(report.format().contains("90 completed"));
+	}
+}
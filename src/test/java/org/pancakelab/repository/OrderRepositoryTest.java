@@ -0,0 +1,74 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.order.Order;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRepositoryTest {
+
+	private OrderRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new OrderRepository();
+	}
+
+	@Test
+	void testSaveAndFindById() {
+		Order order = new Order(1, 101);
+		repository.save(order);
+
+		assertEquals(Optional.of(order), repository.findById(order.getId()));
+		assertSame(order, repository.getById(order.getId()));
+		assertTrue(repository.contains(order.getId()));
+	}
+
+	@Test
+	void testFindUnknownOrder() {
+		UUID unknownId = UUID.randomUUID();
+
+		assertTrue(repository.findById(unknownId).isEmpty());
+		assertTrue(repository.findById(null).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> repository.getById(unknownId));
+	}
+
+	@Test
+	void testDelete() {
+		Order order = new Order(2, 202);
+		repository.save(order);
+
+		assertSame(order, repository.delete(order.getId()));
+		assertNull(repository.delete(order.getId()));
+		assertFalse(repository.contains(order.getId()));
+		assertEquals(0, repository.size());
+	}
+
+	@Test
+	void testSaveNullThrows() {
+		assertThrows(IllegalArgumentException.class, () -> repository.save(null));
+	}
+
+	@Test
+	void testConcurrentSaves() throws InterruptedException {
+		int threads = 8;
+		int ordersPerThread = 1_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				for (int i = 0; i < ordersPerThread; i++) {
+					repository.save(new Order(1, 1));
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(threads * ordersPerThread, repository.size());
+		assertEquals(threads * ordersPerThread, repository.findAll().size());
+	}
+}
@@ -0,0 +1,75 @@
+package org.pancakelab.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final List<String> expired = new ArrayList<>();
+	private final TimingWheel<String> wheel = new TimingWheel<>(1, TimeUnit.SECONDS, 8, expired::add, now::get);
+
+	private void advanceSeconds(long seconds) {
+		now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+		wheel.advance();
+	}
+
+	@Test
+	public void testTimeoutsExpireAfterTheirDelay() {
+		wheel.schedule("a", 3, TimeUnit.SECONDS);
+		wheel.schedule("b", 5, TimeUnit.SECONDS);
+
+		advanceSeconds(2);
+		assertEquals(List.of(), expired);
+		advanceSeconds(2);
+		assertEquals(List.of("a"), expired);
+		advanceSeconds(2);
+		assertEquals(List.of("a", "b"), expired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void testDelaysLongerThanOneTurnWaitForTheirRound() {
+		TimingWheel.Timeout timeout = wheel.schedule("late", 20, TimeUnit.SECONDS);
+
+		advanceSeconds(19);
+		assertEquals(List.of(), expired);
+		assertFalse(timeout.isExpired());
+		advanceSeconds(2);
+		assertEquals(List.of("late"), expired);
+		assertTrue(timeout.isExpired());
+	}
+
+	@Test
+	public void testCancelledTimeoutsNeverExpire() {
+		TimingWheel.Timeout pending = wheel.schedule("pending", 3, TimeUnit.SECONDS);
+		advanceSeconds(1);
+		TimingWheel.Timeout queued = wheel.schedule("queued", 3, TimeUnit.SECONDS);
+
+		assertTrue(pending.cancel());
+		assertTrue(queued.cancel());
+		assertFalse(queued.cancel());
+		advanceSeconds(10);
+
+		assertEquals(List.of(), expired);
+		assertTrue(pending.isCancelled());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void testStartedWheelExpiresOnItsOwnThread() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(100);
+		try (TimingWheel<Integer> started = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 64, i -> latch.countDown())) {
+			started.start();
+			for (int i = 0; i < 100; i++) {
+				started.schedule(i, i, TimeUnit.MILLISECONDS);
+			}
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.pancakelab.logging.OrderLog;
 import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.DeliveryResult;
 import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
 
 import java.util.*;
 
@@ -24,6 +26,14 @@ class DeliveryServiceTest {
 		deliveryService = new DeliveryService(pancakeService, orderService);
 	}
 
+	/**
+	 * Makes the mocked order service deliver the given order the way {@link OrderService#markDelivered} does.
+	 */
+	private void stubMarkDelivered(UUID orderId, Order order) {
+		when(orderService.markDelivered(orderId)).thenAnswer(invocation ->
+				order.compareAndSetStatus(OrderStatus.PREPARED, OrderStatus.DELIVERED) ? order : null);
+	}
+
 	@Test
 	void testDeliverOrderWhenPrepared() {
 		UUID orderId = UUID.randomUUID();
@@ -33,7 +43,7 @@ class DeliveryServiceTest {
 
 		List<String> pancakeDescriptions = Arrays.asList("Pancake with syrup", "Pancake with butter");
 
-		when(orderService.findOrderById(orderId)).thenReturn(order);
+		stubMarkDelivered(orderId, order);
 		when(pancakeService.viewOrder(orderId)).thenReturn(pancakeDescriptions);
 
 		// Mocking OrderLog to prevent actual logging calls during tests
@@ -49,7 +59,8 @@ class DeliveryServiceTest {
 
 			verify(pancakeService, times(1)).viewOrder(orderId);
 			verify(pancakeService, times(1)).removeAllForOrder(orderId);
-			verify(orderService, times(1)).deleteOrder(orderId);
+			verify(orderService, times(1)).markDelivered(orderId);
+			verify(orderService, never()).deleteOrder(orderId);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -62,7 +73,7 @@ class DeliveryServiceTest {
 		//order.setId(orderId);
 		order.setStatus(OrderStatus.CREATED);  // Not prepared yet
 
-		when(orderService.findOrderById(orderId)).thenReturn(order);
+		stubMarkDelivered(orderId, order);
 
 		// Attempt to deliver an order that isn't prepared
 		Object[] result = deliveryService.deliverOrder(orderId);
@@ -84,7 +95,7 @@ class DeliveryServiceTest {
 
 		List<String> pancakeDescriptions = Arrays.asList("Pancake with syrup");
 
-		when(orderService.findOrderById(orderId)).thenReturn(order);
+		stubMarkDelivered(orderId, order);
 		when(pancakeService.viewOrder(orderId)).thenReturn(pancakeDescriptions);
 
 		Object[] result = deliveryService.deliverOrder(orderId);
@@ -102,13 +113,46 @@ class DeliveryServiceTest {
 
 		List<String> pancakeDescriptions = Arrays.asList("Pancake with syrup");
 
-		when(orderService.findOrderById(orderId)).thenReturn(order);
+		stubMarkDelivered(orderId, order);
 		when(pancakeService.viewOrder(orderId)).thenReturn(pancakeDescriptions);
 
 		Object[] result = deliveryService.deliverOrder(orderId);
 
-		// Verify that pancakes were removed and order deleted
+		// Verify that pancakes were removed and the order kept until it is completed
 		verify(pancakeService, times(1)).removeAllForOrder(orderId);
-		verify(orderService, times(1)).deleteOrder(orderId);
+		verify(orderService, times(1)).markDelivered(orderId);
+		verify(orderService, never()).deleteOrder(orderId);
+	}
+
+	@Test
+	void testDispatchPreparedGroupsByBuildingAndRoom() {
+		PancakeService pancakes = new PancakeService();
+		OrderService orders = new OrderService();
+		DeliveryService dispatcher = new DeliveryService(pancakes, orders);
+		Order upstairs = orders.createOrder(2, 205);
+		Order downstairs = orders.createOrder(2, 101);
+		Order other = orders.createOrder(1, 110);
+		Order open = orders.createOrder(1, 120);
+		for (Order order : List.of(upstairs, downstairs, other, open)) {
+			pancakes.addPancakes(order, new BasePancake(), 2);
+		}
+		orders.prepareOrder(upstairs.getId());
+		orders.prepareOrder(downstairs.getId());
+		orders.prepareOrder(other.getId());
+
+		SortedMap<Integer, List<DeliveryResult>> dispatched = dispatcher.dispatchPrepared();
+
+		assertEquals(List.of(1, 2), new ArrayList<>(dispatched.keySet()));
+		assertEquals(List.of(other), dispatched.get(1).stream().map(DeliveryResult::order).toList());
+		assertEquals(List.of(101, 205), dispatched.get(2).stream().map(DeliveryResult::room).toList());
+		assertEquals(2, dispatched.get(2).get(0).pancakeCount());
+		assertEquals(2, dispatched.get(2).get(0).pancakes().size());
+		assertEquals(OrderStatus.COMPLETED, upstairs.getStatus());
+		assertEquals(0, orders.countOrders(OrderStatus.DELIVERED));
+		assertEquals(List.of(open), orders.getAllOrders());
+		assertEquals(0, pancakes.countPancakes(upstairs.getId()));
+		assertEquals(2, pancakes.countPancakes(open.getId()));
+		assertEquals(0, orders.countOrders(OrderStatus.PREPARED));
+		assertTrue(dispatcher.dispatchPrepared().isEmpty());
 	}
-}
\ No newline at end of file
+}
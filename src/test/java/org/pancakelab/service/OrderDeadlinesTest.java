@@ -0,0 +1,81 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderDeadlinesTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private OrderDeadlines deadlines;
+
+	@BeforeEach
+	public void setUp() {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		deadlines = new OrderDeadlines(orderService, pancakeService, 30, 15, TimeUnit.MINUTES,
+				1, TimeUnit.SECONDS, now::get);
+		orderService.setDeadlines(deadlines);
+	}
+
+	private void advanceMinutes(long minutes) {
+		now.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+		deadlines.advance();
+	}
+
+	@Test
+	public void testAbandonedOrdersAreCancelled() {
+		Order abandoned = orderService.createOrder(1, 101);
+		Order confirmed = orderService.createOrder(2, 202);
+		advanceMinutes(20);
+		orderService.prepareOrder(confirmed.getId());
+
+		advanceMinutes(11);
+
+		assertEquals(OrderStatus.CANCELLED, abandoned.getStatus());
+		assertEquals(OrderStatus.PREPARED, confirmed.getStatus());
+		assertEquals(1, deadlines.countTracked());
+	}
+
+	@Test
+	public void testPreparedOrdersMissingTheSlaAreFlagged() {
+		Order late = orderService.createOrder(1, 101);
+		Order onTime = orderService.createOrder(2, 202);
+		orderService.prepareOrder(late.getId());
+		orderService.prepareOrder(onTime.getId());
+		advanceMinutes(10);
+		new DeliveryService(pancakeService, orderService).deliverOrder(onTime.getId());
+
+		advanceMinutes(6);
+
+		assertEquals(Set.of(late.getId()), deadlines.getOverdueOrders());
+		assertEquals(OrderStatus.PREPARED, late.getStatus());
+
+		orderService.completeOrder(late.getId());
+		assertFalse(deadlines.isOverdue(late.getId()));
+		assertEquals(0, deadlines.countTracked());
+	}
+
+	@Test
+	public void testExistingOrdersAreTrackedWhenAttached() {
+		OrderService service = new OrderService();
+		Order order = service.createOrder(1, 101);
+		OrderDeadlines attached = new OrderDeadlines(service, pancakeService, 30, 15, TimeUnit.MINUTES,
+				1, TimeUnit.SECONDS, now::get);
+
+		service.setDeadlines(attached);
+		now.addAndGet(TimeUnit.MINUTES.toNanos(31));
+		attached.advance();
+
+		assertEquals(OrderStatus.CANCELLED, order.getStatus());
+	}
+}
@@ -0,0 +1,92 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.ArchivedOrder;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
+import org.pancakelab.repository.OrderArchive;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderRetentionTest {
+
+	private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	private OrderService orderService;
+	private PancakeService pancakeService;
+	private OrderRetention retention;
+
+	@BeforeEach
+	public void setUp() {
+		orderService = new OrderService();
+		pancakeService = new PancakeService();
+		retention = new OrderRetention(orderService, pancakeService, new OrderArchive(100), 30, TimeUnit.MINUTES);
+	}
+
+	@Test
+	public void testTerminalOrdersAreArchivedAfterTimeToLive() {
+		Order cancelled = orderService.createOrder(1, 101);
+		pancakeService.addPancakes(cancelled, new BasePancake(), 3);
+		orderService.cancelOrder(cancelled.getId(), 3);
+		Order completed = orderService.createOrder(2, 202);
+		orderService.completeOrder(completed.getId());
+		Order active = orderService.createOrder(3, 303);
+		pancakeService.addPancakes(active, new BasePancake(), 1);
+
+		assertEquals(0, retention.sweep(System.currentTimeMillis()));
+		assertEquals(2, retention.sweep(System.currentTimeMillis() + TTL_MILLIS));
+
+		assertEquals(List.of(active), orderService.getAllOrders());
+		assertEquals(0, orderService.countOrders(OrderStatus.CANCELLED));
+		assertEquals(0, pancakeService.countPancakes(cancelled.getId()));
+		assertEquals(1, pancakeService.countPancakes(active.getId()));
+
+		ArchivedOrder archived = retention.getArchive().findById(cancelled.getId()).orElseThrow();
+		assertEquals(OrderStatus.CANCELLED, archived.status());
+		assertEquals(101, archived.room());
+		assertEquals(3, archived.lineItems().get(0).quantity());
+		assertTrue(retention.getArchive().findById(completed.getId()).isPresent());
+	}
+
+	@Test
+	public void testDeliveredOrdersAreLeftForCompletion() {
+		Order order = orderService.createOrder(1, 101);
+		orderService.prepareOrder(order.getId());
+		new DeliveryService(pancakeService, orderService).deliverOrder(order.getId());
+
+		assertEquals(0, retention.sweep(System.currentTimeMillis() + TTL_MILLIS));
+		assertEquals(OrderStatus.DELIVERED, orderService.getOrderStatus(order.getId()));
+
+		orderService.completeOrder(order.getId());
+		assertTrue(orderService.getAllOrders().isEmpty());
+		assertTrue(retention.getArchive().findById(order.getId()).isEmpty());
+	}
+
+	@Test
+	public void testEvictingActiveOrderIsRejected() {
+		Order order = orderService.createOrder(1, 101);
+
+		assertThrows(IllegalStateException.class, () -> orderService.evictOrder(order.getId()));
+	}
+
+	@Test
+	public void testFullArchiveDropsOldestOrder() {
+		OrderArchive archive = new OrderArchive(2);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			UUID id = UUID.randomUUID();
+			ids.add(id);
+			archive.add(new ArchivedOrder(id, 1, 101, OrderStatus.COMPLETED, 0, List.of()));
+		}
+
+		assertEquals(2, archive.size());
+		assertEquals(1, archive.getDroppedCount());
+		assertTrue(archive.findById(ids.get(0)).isEmpty());
+		assertTrue(archive.findById(ids.get(2)).isPresent());
+	}
+}
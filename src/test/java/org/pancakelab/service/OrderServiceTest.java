@@ -7,6 +7,8 @@ import org.pancakelab.model.order.Order;
 import org.pancakelab.model.pancake.Pancake;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,6 +90,34 @@ class OrderServiceTest {
 		assertThrows(IllegalArgumentException.class, () -> orderService.getOrderStatus(orderId));
 	}
 
+	@Test
+	void testMarkDeliveredKeepsOrderUntilCompleted() {
+		Order order = orderService.createOrder(4, 404);
+		UUID orderId = order.getId();
+		assertNull(orderService.markDelivered(orderId), "A CREATED order cannot be delivered");
+
+		orderService.prepareOrder(orderId);
+		assertSame(order, orderService.markDelivered(orderId));
+		assertNull(orderService.markDelivered(orderId), "An order is delivered only once");
+		assertEquals(Set.of(orderId), orderService.listOrdersByStatus(OrderStatus.DELIVERED));
+
+		orderService.completeOrder(orderId);
+		assertFalse(orderService.getOrderRepository().contains(orderId));
+		assertEquals(0, orderService.countOrders(OrderStatus.DELIVERED));
+	}
+
+	@Test
+	void testDeleteOrderRemovesDeliveredOrder() {
+		UUID orderId = orderService.createOrder(5, 505).getId();
+		orderService.prepareOrder(orderId);
+		orderService.markDelivered(orderId);
+
+		orderService.deleteOrder(orderId);
+
+		assertFalse(orderService.getOrderRepository().contains(orderId));
+		assertEquals(0, orderService.countOrders(OrderStatus.DELIVERED));
+	}
+
 	@Test
 	void testFindOrderById() {
 		Order order = orderService.createOrder(10, 1001);
@@ -111,4 +141,88 @@ class OrderServiceTest {
 		List<Order> allOrders = orderService.getAllOrders();
 		assertEquals(2, allOrders.size());
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testStatusIndexFollowsTransitions() {
+		Order order1 = orderService.createOrder(1, 101);
+		Order order2 = orderService.createOrder(2, 202);
+		assertEquals(2, orderService.countOrders(OrderStatus.CREATED));
+
+		orderService.prepareOrder(order1.getId());
+		assertEquals(Set.of(order1.getId()), orderService.listPreparedOrders());
+		assertEquals(Set.of(order2.getId()), orderService.listOrdersByStatus(OrderStatus.CREATED));
+		assertEquals(1, orderService.countOrders(OrderStatus.PREPARED));
+
+		orderService.deleteOrder(order1.getId());
+		assertTrue(orderService.listPreparedOrders().isEmpty());
+		assertEquals(0, orderService.countOrders(OrderStatus.PREPARED));
+	}
+
+	@Test
+	void testTransitionOfUnknownOrderThrows() {
+		UUID unknownId = UUID.randomUUID();
+		assertThrows(IllegalArgumentException.class, () -> orderService.prepareOrder(unknownId));
+		assertEquals(0, orderService.countOrders(OrderStatus.PREPARED));
+	}
+
+	@Test
+	void testCancelPreparedOrderThrows() {
+		Order order = orderService.createOrder(1, 101);
+		orderService.prepareOrder(order.getId());
+
+		assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(order.getId(), new ArrayList<>()));
+		assertEquals(OrderStatus.PREPARED, order.getStatus());
+	}
+
+	@Test
+	void testStatusIsReadFromOrder() {
+		Order order = orderService.createOrder(2, 202);
+		orderService.prepareOrder(order.getId());
+
+		assertEquals(OrderStatus.PREPARED, order.getStatus());
+		assertEquals(OrderStatus.PREPARED, orderService.getOrderStatus(order.getId()));
+	}
+
+	@Test
+	void testConcurrentPrepareAndCancelHaveSingleWinner() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int round = 0; round < 200; round++) {
+				Order order = orderService.createOrder(1, 101);
+				CountDownLatch start = new CountDownLatch(1);
+				AtomicInteger winners = new AtomicInteger();
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					boolean cancel = t % 2 == 0;
+					futures.add(executor.submit(() -> {
+						start.await();
+						try {
+							if (cancel) {
+								orderService.cancelOrder(order.getId(), List.of());
+							} else {
+								orderService.prepareOrder(order.getId());
+							}
+							winners.incrementAndGet();
+						} catch (IllegalStateException e) {
+							// Lost the race against another transition
+						}
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> future : futures) {
+					future.get();
+				}
+
+				assertEquals(1, winners.get());
+				OrderStatus status = order.getStatus();
+				assertTrue(status == OrderStatus.CANCELLED || status == OrderStatus.PREPARED);
+				assertTrue(orderService.listOrdersByStatus(status).contains(order.getId()));
+			}
+			assertEquals(0, orderService.countOrders(OrderStatus.CREATED));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -1,32 +1,42 @@
 package org.pancakelab.service;
 
 import org.junit.jupiter.api.*;
+import org.pancakelab.builder.PancakeBuilder;
+import org.pancakelab.inventory.IngredientInventory;
+import org.pancakelab.journal.OrderJournal;
 import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.constant.Ingredient;
+import org.pancakelab.model.order.LineItem;
+import org.pancakelab.model.order.OrderLines;
 import org.pancakelab.model.order.Order;
 import org.pancakelab.model.pancake.BasePancake;
 import org.pancakelab.model.pancake.Pancake;
+import org.pancakelab.repository.OrderRepository;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)  // Annotation for test method ordering
 public class PancakeServiceTest {
 
 	private final PancakeService pancakeService = new PancakeService();
-	private final List<Order> orders = new ArrayList<>();
+	private final OrderRepository orders = new OrderRepository();
 	private Order order;
 
 	@BeforeEach
 	public void setup() {
 		order = new Order(1, 101);
-		orders.add(order);
+		orders.save(order);
 	}
 
 	@AfterEach
 	public void tearDown() {
-		orders.clear();
+		orders.delete(order.getId());
 		pancakeService.removeAllForOrder(order.getId());
 	}
 
@@ -101,4 +111,116 @@ public class PancakeServiceTest {
 
 		assertTrue(pancakeService.viewOrder(order.getId()).isEmpty());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void WhenAddingPancakesToSeveralOrders_ThenEachOrderSeesOnlyItsOwn() {
+		Order otherOrder = new Order(2, 202);
+		pancakeService.addPancakes(order, new BasePancake(), 3);
+		pancakeService.addPancakes(otherOrder, new BasePancake(), 2);
+
+		assertEquals(3, pancakeService.viewOrder(order.getId()).size());
+		assertEquals(2, pancakeService.getPancakes(otherOrder.getId()).size());
+		assertEquals(5, pancakeService.getAllPancakes().size());
+
+		pancakeService.removeAllForOrder(otherOrder.getId());
+		assertTrue(pancakeService.getPancakes(otherOrder.getId()).isEmpty());
+		assertEquals(3, pancakeService.viewOrder(order.getId()).size());
+	}
+
+	@Test
+	public void WhenAddingPancakesInBulk_ThenEachPancakeIsItsOwnInstance() {
+		Pancake pancake = new PancakeBuilder().addIngredient("Hazelnut").build();
+		pancake.setPrice(2);
+		pancakeService.addPancakes(order, pancake, 3);
+
+		List<Pancake> added = pancakeService.getPancakes(order.getId());
+		assertEquals(3, added.size());
+		Set<Pancake> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		distinct.addAll(added);
+		assertEquals(3, distinct.size());
+		for (Pancake p : added) {
+			assertEquals(order.getId(), p.getOrderId());
+			assertEquals(2, p.getPrice());
+			assertEquals(pancake.getDescription(), p.getDescription());
+		}
+	}
+
+	@Test
+	public void WhenAddingManyIdenticalPancakes_ThenOneLineItemIsStored() {
+		Pancake pancake = pancakeService.createPancake(List.of("1", "3"), order);
+		pancakeService.addPancakes(order, pancake, 500);
+		pancakeService.addPancakes(order, pancake.copy(), 100);
+
+		List<LineItem> lineItems = pancakeService.getLineItems(order.getId());
+		assertEquals(1, lineItems.size());
+		assertEquals(600, lineItems.get(0).quantity());
+		assertEquals(600, pancakeService.countPancakes(order.getId()));
+		List<String> descriptions = pancakeService.viewOrder(order.getId());
+		assertEquals(600, descriptions.size());
+		assertEquals(pancake.getDescription(), descriptions.get(599));
+
+		pancakeService.removePancakes(order.getId(), 250, orders);
+		assertEquals(350, pancakeService.getLineItems(order.getId()).get(0).quantity());
+	}
+
+	@Test
+	public void WhenChangingAnOrderConcurrently_ThenTotalsMatchItsLineItems() throws Exception {
+		Pancake pancake = pancakeService.createPancake(List.of("1"), order);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						pancakeService.addPancakes(order, pancake.copy(), 3);
+						pancakeService.removePancakes(order.getId(), 1, orders);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		OrderLines lines = pancakeService.getOrderLines(order.getId());
+		assertEquals(8000, lines.getPancakeCount());
+		assertEquals(8000 * pancake.getPrice(), pancakeService.getTotalPrice(order.getId()));
+		assertEquals(8000, lines.getIngredientCount(Ingredient.MILK_CHOCOLATE));
+	}
+
+	@Test
+	public void WhenTheJournalFailsAfterPancakesAreAdded_ThenTheirStockStaysReserved() {
+		PancakeService service = new PancakeService();
+		IngredientInventory inventory = new IngredientInventory(100);
+		OrderJournal journal = mock(OrderJournal.class);
+		doThrow(new IllegalStateException("disk full")).when(journal).pancakesAdded(any(), any(), anyDouble(), anyInt());
+		service.setInventory(inventory);
+		service.setJournal(journal);
+		Pancake pancake = service.createPancake(List.of("1"), order);
+
+		assertThrows(IllegalStateException.class, () -> service.addPancakes(order, pancake, 3));
+
+		assertEquals(3, service.countPancakes(order.getId()));
+		assertEquals(3, inventory.getReserved(order.getId(), Ingredient.MILK_CHOCOLATE));
+		service.removeAllForOrder(order.getId());
+	}
+
+	@Test
+	public void WhenTheJournalFailsAfterPancakesAreRemoved_ThenTheirStockIsReleased() {
+		PancakeService service = new PancakeService();
+		IngredientInventory inventory = new IngredientInventory(100);
+		OrderJournal journal = mock(OrderJournal.class);
+		doThrow(new IllegalStateException("disk full")).when(journal).pancakesRemoved(any(), anyInt());
+		service.setInventory(inventory);
+		service.setJournal(journal);
+		service.addPancakes(order, service.createPancake(List.of("1"), order), 3);
+
+		assertThrows(IllegalStateException.class, () -> service.removePancakes(order.getId(), 2, orders));
+
+		assertEquals(1, service.countPancakes(order.getId()));
+		assertEquals(1, inventory.getReserved(order.getId(), Ingredient.MILK_CHOCOLATE));
+		service.removeAllForOrder(order.getId());
+	}
+}
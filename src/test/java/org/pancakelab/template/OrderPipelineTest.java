@@ -0,0 +1,174 @@
+package org.pancakelab.template;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.metrics.Operation;
+import org.pancakelab.model.constant.OrderStatus;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
+import org.pancakelab.service.DeliveryService;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderPipelineTest {
+
+	private PancakeService pancakeService;
+	private OrderService orderService;
+	private DeliveryService deliveryService;
+	private OrderPipeline pipeline;
+
+	@BeforeEach
+	public void setUp() {
+		pancakeService = new PancakeService();
+		orderService = new OrderService();
+		deliveryService = new DeliveryService(pancakeService, orderService);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (pipeline != null) {
+			pipeline.close();
+		}
+	}
+
+	@Test
+	public void testAllSubmittedOrdersComplete() throws Exception {
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 4, 8);
+		List<UUID> orderIds = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			Order order = orderService.createOrder(1, 101);
+			pancakeService.addPancakes(order, new BasePancake(), 2);
+			orderIds.add(order.getId());
+		}
+
+		List<CompletableFuture<Order>> results = pipeline.submitAll(orderIds);
+
+		for (int i = 0; i < results.size(); i++) {
+			Order order = results.get(i).get(10, TimeUnit.SECONDS);
+			assertEquals(orderIds.get(i), order.getId());
+			assertEquals(OrderStatus.COMPLETED, order.getStatus());
+		}
+		assertEquals(0, pipeline.inFlight());
+		assertTrue(orderService.getAllOrders().isEmpty());
+	}
+
+	@Test
+	public void testStagesAreTimed() throws Exception {
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 1, 8);
+		Operation[] timed = {Operation.PREPARE_STAGE, Operation.DELIVER_STAGE, Operation.COMPLETE_STAGE,
+				Operation.PROCESS_ORDER};
+		long[] before = new long[timed.length];
+		for (int i = 0; i < timed.length; i++) {
+			before[i] = timed[i].getHistogram().snapshot().count();
+		}
+		Order order = orderService.createOrder(1, 101);
+		pancakeService.addPancakes(order, new BasePancake(), 1);
+
+		pipeline.submit(order.getId()).get(10, TimeUnit.SECONDS);
+
+		for (int i = 0; i < timed.length; i++) {
+			assertTrue(timed[i].getHistogram().snapshot().count() > before[i], timed[i].getLabel());
+		}
+	}
+
+	@Test
+	public void testFailedStageCompletesExceptionally() {
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 1, 4);
+		Order order = orderService.createOrder(1, 101);
+		orderService.cancelOrder(order.getId(), 0);
+
+		CompletableFuture<Order> result = pipeline.submit(order.getId());
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, failure.getCause());
+	}
+
+	@Test
+	public void testUnknownOrderCompletesExceptionally() {
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 1, 4);
+
+		CompletableFuture<Order> result = pipeline.submit(UUID.randomUUID());
+
+		assertTrue(result.isCompletedExceptionally());
+	}
+
+	@Test
+	public void testSlowDeliveryDoesNotStallOtherOrders() throws Exception {
+		CountDownLatch releaseSlowOrder = new CountDownLatch(1);
+		Order slowOrder = orderService.createOrder(1, 101);
+		OrderProcessTemplate process = new PancakeOrderProcess(pancakeService, orderService, deliveryService) {
+			@Override
+			protected void deliver(UUID orderId) {
+				if (orderId.equals(slowOrder.getId())) {
+					try {
+						releaseSlowOrder.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				super.deliver(orderId);
+			}
+		};
+		pipeline = OrderPipeline.withPlatformThreads(process, orderService::findOrderById, 2, 4);
+
+		CompletableFuture<Order> slow = pipeline.submit(slowOrder.getId());
+		Order fastOrder = orderService.createOrder(2, 202);
+		CompletableFuture<Order> fast = pipeline.submit(fastOrder.getId());
+
+		assertEquals(fastOrder, fast.get(10, TimeUnit.SECONDS));
+		assertFalse(slow.isDone());
+
+		releaseSlowOrder.countDown();
+		assertEquals(slowOrder, slow.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testOrderIsInThePipelineOnlyOnce() throws Exception {
+		CountDownLatch releaseOrder = new CountDownLatch(1);
+		OrderProcessTemplate process = new PancakeOrderProcess(pancakeService, orderService, deliveryService) {
+			@Override
+			protected void prepare(UUID orderId) {
+				try {
+					releaseOrder.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.prepare(orderId);
+			}
+		};
+		pipeline = OrderPipeline.withPlatformThreads(process, orderService::findOrderById, 1, 4);
+		Order order = orderService.createOrder(1, 101);
+
+		CompletableFuture<Order> result = pipeline.submit(order.getId());
+		assertThrows(IllegalStateException.class, () -> pipeline.submit(order.getId()));
+
+		Order cancelled = orderService.createOrder(2, 202);
+		orderService.cancelOrder(cancelled.getId(), 0);
+		assertThrows(IllegalStateException.class,
+				() -> pipeline.submitIf(cancelled.getId(), submitted -> submitted.getStatus() == OrderStatus.CREATED));
+
+		releaseOrder.countDown();
+		assertEquals(order, result.get(10, TimeUnit.SECONDS));
+		assertEquals(0, pipeline.inFlight());
+	}
+
+	@Test
+	public void testSubmitAfterCloseThrows() {
+		pipeline = OrderPipeline.withPlatformThreads(
+				new PancakeOrderProcess(pancakeService, orderService, deliveryService), orderService::findOrderById, 1, 4);
+		Order order = orderService.createOrder(1, 101);
+		pipeline.close();
+
+		assertThrows(IllegalStateException.class, () -> pipeline.submit(order.getId()));
+	}
+}
@@ -2,12 +2,15 @@ package org.pancakelab.template;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.pancakelab.model.order.Order;
+import org.pancakelab.model.pancake.BasePancake;
 import org.pancakelab.service.DeliveryService;
 import org.pancakelab.service.OrderService;
 import org.pancakelab.service.PancakeService;
 
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class PancakeOrderProcessTest {
@@ -64,4 +67,18 @@ public class PancakeOrderProcessTest {
 		pancakeOrderProcess.complete(orderId);
 		verify(orderService).completeOrder(orderId);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testProcessOrderWithRealServices() {
+		PancakeService pancakes = new PancakeService();
+		OrderService orders = new OrderService();
+		DeliveryService delivery = new DeliveryService(pancakes, orders);
+		Order order = orders.createOrder(1, 101);
+		pancakes.addPancakes(order, new BasePancake(), 2);
+
+		new PancakeOrderProcess(pancakes, orders, delivery).processOrder(order.getId());
+
+		assertThrows(IllegalArgumentException.class, () -> orders.findOrderById(order.getId()));
+		assertTrue(pancakes.getPancakes(order.getId()).isEmpty());
+	}
+}